@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: BenchmarkRunner.java
+ * Class Name: Draw.BenchmarkRunner
+ * Last Modified: 10/18/26, 2:40 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * Entry point that runs the benchmarks with the gc profiler attached,
+ * so every result reports throughput together with the allocation rate.
+ * An optional argument is a regular expression selecting the benchmarks to run.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "Draw\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: BvhCheck.java
+ * Class Name: Draw.BvhCheck
+ * Last Modified: 10/18/26, 5:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.Bvh;
+import Draw.Geometry.MeshBvh;
+import Draw.Geometry.MeshData;
+import Draw.Geometry.TorusGenerator;
+
+import java.util.Random;
+
+/*
+ * Checks Bvh and MeshBvh against brute force, exits with 1 on the first mismatch.
+ * The scene tree is built and queried for every item count up to 2048 and a few larger ones,
+ * then refit after the items moved. Every triangle of a torus must be found by a ray aimed at it.
+ *
+ * java -cp target/benchmarks.jar Draw.BvhCheck
+ */
+public class BvhCheck {
+    private static final int RAYS = 64;     //Rays per tree
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        int trees = 0;
+        for (int n = 0; n <= 2048; n++) {
+            check(n, random);
+            trees++;
+        }
+        for (int n : new int[]{5461, 10_000, 65_536}) {
+            check(n, random);
+            trees++;
+        }
+        checkMesh(TorusGenerator.generate(75, 25, 64, 32, false));
+        System.out.println(trees + " trees and the torus triangles match brute force");
+    }
+
+    /*
+     * Builds a tree over n random boxes, compares its hits with testing every box,
+     * then moves half of the boxes, refits and compares again
+     */
+    private static void check(int n, Random random) {
+        float[] boxes = new float[n * 6];
+        for (int i = 0; i < n; i++) {
+            place(boxes, i, random);
+        }
+        Bvh bvh = new Bvh(n, (item, box) -> System.arraycopy(boxes, item * 6, box, 0, 6));
+        compare(bvh, boxes, n, random);
+        for (int i = 0; i < n; i += 2) {
+            place(boxes, i, random);
+            bvh.invalidate(i);
+        }
+        bvh.refit();
+        compare(bvh, boxes, n, random);
+    }
+
+    private static void place(float[] boxes, int i, Random random) {
+        for (int axis = 0; axis < 3; axis++) {
+            float min = random.nextFloat() * 100;
+            boxes[i * 6 + axis] = min;
+            boxes[i * 6 + 3 + axis] = min + random.nextFloat() * 5;
+        }
+    }
+
+    private static void compare(Bvh bvh, float[] boxes, int n, Random random) {
+        double[] distance = new double[1];
+        for (int r = 0; r < RAYS; r++) {
+            double ox = -10, oy = random.nextDouble() * 100, oz = random.nextDouble() * 100;
+            double dx = 1, dy = random.nextDouble() - 0.5, dz = random.nextDouble() - 0.5;
+            double best = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                best = Math.min(best, Bvh.rayBox(boxes, i * 6, ox, oy, oz, dx, dy, dz));
+            }
+            int hit = bvh.raycast(ox, oy, oz, dx, dy, dz, Double.POSITIVE_INFINITY,
+                    (item, max) -> Bvh.rayBox(boxes, item * 6, ox, oy, oz, dx, dy, dz), distance);
+            double found = hit < 0 ? Double.POSITIVE_INFINITY : distance[0];
+            if (found != best) {
+                fail(n + " items, ray " + r + ": tree hit at " + found + ", brute force at " + best);
+            }
+        }
+    }
+
+    /*
+     * Aims a ray at the center of every triangle from outside the mesh, along the triangle's normal.
+     * The closest hit can not be farther than that center.
+     */
+    private static void checkMesh(MeshData mesh) {
+        float[] points = mesh.getPoints();
+        int[] faces = mesh.getFaces();
+        MeshBvh tree = new MeshBvh(mesh);
+        double[] distance = new double[1];
+        for (int f = 0; f < faces.length; f += 6) {
+            int a = faces[f] * 3, b = faces[f + 2] * 3, c = faces[f + 4] * 3;
+            double[] center = new double[3];
+            double[] e1 = new double[3];
+            double[] e2 = new double[3];
+            for (int axis = 0; axis < 3; axis++) {
+                center[axis] = (points[a + axis] + points[b + axis] + points[c + axis]) / 3.0;
+                e1[axis] = points[b + axis] - points[a + axis];
+                e2[axis] = points[c + axis] - points[a + axis];
+            }
+            double nx = e1[1] * e2[2] - e1[2] * e2[1];
+            double ny = e1[2] * e2[0] - e1[0] * e2[2];
+            double nz = e1[0] * e2[1] - e1[1] * e2[0];
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length == 0) {
+                continue;   //Collapsed triangle, nothing to hit
+            }
+            double far = 1000;  //Far outside of the torus, in units of the direction
+            double ox = center[0] + nx / length * far;
+            double oy = center[1] + ny / length * far;
+            double oz = center[2] + nz / length * far;
+            int hit = tree.intersect(ox, oy, oz, -nx / length, -ny / length, -nz / length,
+                    Double.POSITIVE_INFINITY, distance);
+            if (hit < 0 || distance[0] > far + 1e-3) {
+                fail("Triangle " + f / 6 + " was not found, hit " + hit);
+            }
+        }
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+}
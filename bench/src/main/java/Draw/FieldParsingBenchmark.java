@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: FieldParsingBenchmark.java
+ * Class Name: Draw.FieldParsingBenchmark
+ * Last Modified: 10/18/26, 2:40 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.ShapeParameters;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Benchmarks the path getFields() takes for the 5 text fields:
+ * the number pattern, the conversion to double and the normalization.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FieldParsingBenchmark {
+    //What the fields typically hold, a mix of numbers, decimals and empty fields
+    public String length = "200";
+    public String width = "";
+    public String radius = "62.5";
+    public String height = "1,75";
+    public String minorRadius = "abc";
+
+    @Benchmark
+    public ShapeParameters parse() {
+        return ShapeParameters.parse(length, width, radius, height, minorRadius);
+    }
+
+    @Benchmark
+    public ShapeParameters allNumbers() {
+        return ShapeParameters.parse(radius, radius, radius, radius, radius);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: GeneratorCheck.java
+ * Class Name: Draw.GeneratorCheck
+ * Last Modified: 10/18/26, 9:25 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.ConeGenerator;
+import Draw.Geometry.MeshData;
+import Draw.Geometry.TorusGenerator;
+import javafx.geometry.Point3D;
+
+import java.util.Arrays;
+
+/*
+ * Checks the mesh generators against the code they replaced, exits with 1 on the first mismatch.
+ * The torus must match the original Point3D based drawTorus() bit for bit, the vertices, texture coordinates
+ * and faces, for the ring, horn and spindle tori at the default and a few other segment counts.
+ * The torus and the cone, open and closed, with and without an apex, must also come out the same
+ * when they are generated in parallel as when they are generated serially, smoothing groups included.
+ *
+ * java -cp target/benchmarks.jar Draw.GeneratorCheck
+ */
+public class GeneratorCheck {
+    private static final double[][] RADII = {{75, 25}, {50, 50}, {30, 60}};    //Ring, horn and spindle tori
+    private static final int[][] SEGMENTS = {{128, 64}, {8, 8}, {37, 19}, {100, 50}, {1024, 512}};
+    private static final int[] CONE_SEGMENTS = {3, 8, 37, 1024, 100_000};
+    private static final double[][] CONES = {{50, 0, 100}, {50, 20, 100}, {20, 50, 40}};    //r1, r2 and h
+
+    public static void main(String[] args) {
+        int tori = 0;
+        for (double[] radii : RADII) {
+            for (int[] segments : SEGMENTS) {
+                MeshData mesh = TorusGenerator.generate(radii[0], radii[1], segments[0], segments[1]);
+                compare("torus " + radii[0] + "/" + radii[1] + " " + segments[0] + "x" + segments[1],
+                        mesh, baselineTorus(radii[0], radii[1], segments[0], segments[1]));
+                tori++;
+            }
+        }
+        System.out.println(tori + " tori match the original generator");
+        int meshes = 0;
+        for (double[] radii : RADII) {
+            for (int[] segments : SEGMENTS) {
+                compare("parallel torus " + radii[0] + "/" + radii[1] + " " + segments[0] + "x" + segments[1],
+                        TorusGenerator.generate(radii[0], radii[1], segments[0], segments[1], true),
+                        TorusGenerator.generate(radii[0], radii[1], segments[0], segments[1], false));
+                meshes++;
+            }
+        }
+        for (double[] cone : CONES) {
+            for (int segments : CONE_SEGMENTS) {
+                String name = "cone " + cone[0] + "/" + cone[1] + "/" + cone[2] + " " + segments;
+                compare("parallel " + name, ConeGenerator.generate(cone[0], cone[1], cone[2], segments, true),
+                        ConeGenerator.generate(cone[0], cone[1], cone[2], segments, false));
+                compare("parallel closed " + name,
+                        ConeGenerator.generateClosed(cone[0], cone[1], cone[2], segments, true),
+                        ConeGenerator.generateClosed(cone[0], cone[1], cone[2], segments, false));
+                meshes += 2;
+            }
+        }
+        System.out.println(meshes + " meshes generated in parallel match the serial ones");
+    }
+
+    /*
+     * The torus of the original ParametersController.drawTorus(), returned as points, texture coordinates
+     * and faces instead of a TriangleMesh
+     */
+    private static Object[] baselineTorus(double majRad, double minRad, int ringSegments, int tubeSegments) {
+        float majRadius = (float) majRad;
+        float minRadius = (float) minRad;
+        float zeroPos = (float) Math.toRadians(0);
+        int ringSteps = ringSegments + 1;
+        int tubeSteps = tubeSegments + 1;
+        Point3D[][] cord = new Point3D[ringSteps][tubeSteps];
+        float ringDelta = (float) (2 * Math.PI / ringSegments);
+        float tubeDelta = (float) (2 * Math.PI / tubeSegments);
+        for (int t = 0; t < tubeSteps; t++) {
+            float angle = zeroPos + t * tubeDelta;
+            cord[0][t] = new Point3D(majRadius + minRadius * Math.cos(angle), minRadius * Math.sin(angle), 0);
+        }
+        for (int r = 1; r < ringSteps; r++) {
+            float angle = r * ringDelta;
+            float sinA = (float) Math.sin(angle);
+            float cosA = (float) Math.cos(angle);
+            for (int t = 0; t < tubeSteps; t++) {
+                Point3D point0 = cord[0][t];
+                cord[r][t] = new Point3D(point0.getX() * cosA, point0.getY(), point0.getX() * sinA);
+            }
+        }
+        float[] points = new float[ringSteps * tubeSteps * 3];
+        int i = 0;
+        for (int t = 0; t < tubeSteps; t++) {
+            for (int r = 0; r < ringSteps; r++) {
+                points[i++] = (float) cord[r][t].getX();
+                points[i++] = (float) cord[r][t].getY();
+                points[i++] = (float) cord[r][t].getZ();
+            }
+        }
+        float deltaU = (float) 1 / ringSegments;
+        float deltaV = (float) 1 / tubeSegments;
+        float[] uv = new float[ringSteps * tubeSteps * 2];
+        i = 0;
+        for (int t = 0; t < tubeSteps; t++) {
+            for (int r = 0; r < ringSteps; r++) {
+                uv[i++] = r * deltaU;
+                uv[i++] = t * deltaV;
+            }
+        }
+        i = 0;
+        int[] faces = new int[ringSegments * tubeSegments * 12];
+        for (int t = 0; t < tubeSegments; t++) {
+            for (int r = 0; r < ringSegments; r++) {
+                int iTopLeft = r + t * ringSteps;
+                int iBottomLeft = r + (t + 1) * ringSteps;
+                int iBottomRight = r + 1 + (t + 1) * ringSteps;
+                int iTopRight = r + 1 + t * ringSteps;
+                int[] corners = {iTopLeft, iBottomLeft, iTopRight, iBottomLeft, iBottomRight, iTopRight};
+                for (int corner : corners) {
+                    faces[i++] = corner;    //The point and the texture coordinate
+                    faces[i++] = corner;
+                }
+            }
+        }
+        return new Object[]{points, uv, faces};
+    }
+
+    /*
+     * Compares two meshes, the smoothing groups included
+     */
+    private static void compare(String name, MeshData mesh, MeshData expected) {
+        compare(name, mesh, new Object[]{expected.getPoints(), expected.getTexCoords(), expected.getFaces()});
+        if (!Arrays.equals(mesh.getSmoothingGroups(), expected.getSmoothingGroups())) {
+            fail(name + ": the smoothing groups differ");
+        }
+    }
+
+    /*
+     * Compares a mesh with the points, texture coordinates and faces of the reference
+     */
+    private static void compare(String name, MeshData mesh, Object[] expected) {
+        if (!Arrays.equals(mesh.getPoints(), (float[]) expected[0])) {
+            fail(name + ": the points differ");
+        }
+        if (!Arrays.equals(mesh.getTexCoords(), (float[]) expected[1])) {
+            fail(name + ": the texture coordinates differ");
+        }
+        if (!Arrays.equals(mesh.getFaces(), (int[]) expected[2])) {
+            fail(name + ": the faces differ");
+        }
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+}
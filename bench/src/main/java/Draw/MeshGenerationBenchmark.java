@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshGenerationBenchmark.java
+ * Class Name: Draw.MeshGenerationBenchmark
+ * Last Modified: 10/18/26, 2:40 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.ConeGenerator;
+import Draw.Geometry.MeshData;
+import Draw.Geometry.TorusGenerator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Benchmarks the torus and cone mesh generators across segment counts.
+ * The torus uses segments x segments/2 like the viewer, the cone uses segments around.
+ * The dimensions are the largest normalized values getFields() can produce.
+ * parallel compares serial generation with the fork/join row blocks,
+ * run with -p parallel=true on a machine with 8+ cores to see the speedup.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MeshGenerationBenchmark {
+    @Param({"64", "128", "512", "1024", "2048"})
+    public int segments;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    @Benchmark
+    public MeshData torus() {
+        return TorusGenerator.generate(75, 75, segments, segments / 2, parallel);
+    }
+
+    @Benchmark
+    public MeshData cone() {
+        return ConeGenerator.generate(150, 0, 250, segments, parallel);
+    }
+
+    @Benchmark
+    public MeshData frustum() {
+        return ConeGenerator.generate(150, 75, 250, segments, parallel);
+    }
+}
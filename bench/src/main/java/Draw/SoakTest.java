@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: SoakTest.java
+ * Class Name: Draw.SoakTest
+ * Last Modified: 10/18/26, 4:10 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import javafx.application.Platform;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * Soak test of the viewer, drives the shape buttons of Controller and ParametersController.drawShape()
+ * the way a user would, opening and closing thousands of shape windows with random dimensions.
+ * Every -sample windows the heap is measured after a full gc, together with the number of shape stages
+ * still reachable and the frame time percentiles reported by the PerformanceOverlay of the windows.
+ * The samples are written to a csv file, the run fails (exit code 1) when a least squares trend of the
+ * samples after the warm up grows past its threshold over the run.
+ *
+ * java -cp target/benchmarks.jar Draw.SoakTest [-windows n] [-sample n] [-seed n] [-dwell ms]
+ *      [-warmup fraction] [-heapGrowth MB] [-stageGrowth n] [-frameGrowth ratio] [-out file]
+ *
+ * The software pipeline (prism.order=sw) is selected unless another one is set on the command line.
+ * A display is still needed, Xvfb works, or the openjfx-monocle jar on the classpath together with
+ * -Dglass.platform=Monocle -Dmonocle.platform=Headless for a run without any display.
+ */
+public class SoakTest {
+    private static final String[] SHAPES = {"circle", "square", "triangle", "rectangle", "sphere", "cube", "cone",
+            "cylinder", "torus"};
+    private static final long TIMEOUT_SECONDS = 30; //Longest wait for the JavaFX thread or a shape to be drawn
+
+    private final Random random;
+    private final Map<Stage, Boolean> stages = new WeakHashMap<>();  //Every shape stage seen, weakly held
+    private Controller main;    //Controller of the main window
+    private Stage mainStage;
+    private double p50Sum, p99Sum;  //Frame time percentiles of the windows closed since the last sample
+    private int measured;   //Number of windows summed in p50Sum and p99Sum
+
+    private SoakTest(long seed) {
+        random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int windows = 2000;
+        int sample = 100;
+        long seed = 1;
+        long dwell = 200;
+        double warmup = 0.2;
+        double heapGrowth = 32;
+        double stageGrowth = 2;
+        double frameGrowth = 1.5;
+        Path out = Paths.get("soak.csv");
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case ("-windows") -> windows = Integer.parseInt(args[++i]);
+                case ("-sample") -> sample = Integer.parseInt(args[++i]);
+                case ("-seed") -> seed = Long.parseLong(args[++i]);
+                case ("-dwell") -> dwell = Long.parseLong(args[++i]);
+                case ("-warmup") -> warmup = Double.parseDouble(args[++i]);
+                case ("-heapGrowth") -> heapGrowth = Double.parseDouble(args[++i]);
+                case ("-stageGrowth") -> stageGrowth = Double.parseDouble(args[++i]);
+                case ("-frameGrowth") -> frameGrowth = Double.parseDouble(args[++i]);
+                case ("-out") -> out = Paths.get(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        if (System.getProperty("prism.order") == null) {
+            System.setProperty("prism.order", "sw");    //Must be set before the toolkit starts
+        }
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        Platform.setImplicitExit(false);    //Closing the last shape window must not stop the toolkit
+        started.await();
+
+        boolean passed;
+        try {
+            passed = new SoakTest(seed).run(windows, sample, dwell, warmup, heapGrowth, stageGrowth, frameGrowth,
+                    out);
+        } finally {
+            Platform.exit();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /*
+     * Opens and closes the windows, writes the samples and checks their trends.
+     * Returns false when a threshold was exceeded.
+     */
+    private boolean run(int windows, int sample, long dwell, double warmup, double heapGrowth, double stageGrowth,
+                        double frameGrowth, Path out) throws Exception {
+        fx(() -> {
+            FXMLLoader loader = new FXMLLoader(Controller.class.getResource("draw.fxml"));
+            Parent root = loader.load();
+            mainStage = new Stage();
+            mainStage.setScene(new Scene(root));
+            mainStage.show();
+            main = loader.getController();
+            return null;
+        });
+
+        List<double[]> samples = new ArrayList<>();     //windows, heap MB, stages, p50 ms, p99 ms
+        long start = System.nanoTime();
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(out))) {
+            csv.println("windows,seconds,heap_mb,shape_stages,live_windows,pooled_windows,all_windows,"
+                    + "frame_p50_ms,frame_p99_ms");
+            for (int i = 1; i <= windows; i++) {
+                open();
+                Thread.sleep(dwell);    //Lets the shape spin so the overlay records frames
+                fx(this::closeShapeWindows);
+                if (i % sample == 0) {
+                    double[] s = sample(i);
+                    samples.add(s);
+                    int[] counts = fx(() -> new int[]{ShapeWindows.getLiveWindowCount(),
+                            ShapeWindows.getPooledWindowCount(), Window.getWindows().size()});
+                    csv.printf("%d,%.1f,%.2f,%d,%d,%d,%d,%.2f,%.2f%n", i, (System.nanoTime() - start) / 1e9,
+                            s[1], (int) s[2], counts[0], counts[1], counts[2], s[3], s[4]);
+                    csv.flush();
+                    System.out.printf("%d windows: heap %.1f MB, %d shape stages, frame p50 %.2f ms p99 %.2f ms%n",
+                            i, s[1], (int) s[2], s[3], s[4]);
+                }
+            }
+        } finally {
+            fx(() -> {
+                mainStage.hide();
+                return null;
+            });
+        }
+
+        List<double[]> steady = samples.subList((int) (samples.size() * warmup), samples.size());
+        if (steady.size() < 3) {
+            System.out.println("Not enough samples after the warm up to check the trends");
+            return true;
+        }
+        boolean passed = check("heap", steady, 1, heapGrowth, false, "MB");
+        passed &= check("shape stages", steady, 2, stageGrowth, false, "");
+        passed &= check("frame p99", steady, 4, frameGrowth, true, "x");
+        System.out.println(passed ? "PASSED" : "FAILED");
+        return passed;
+    }
+
+    /*
+     * Chooses a random shape with random dimensions and draws it, one window in ten uses Draw Many.
+     * Returns once the parameters window is hidden, which happens when the shape is shown.
+     */
+    private void open() throws Exception {
+        String shape = SHAPES[random.nextInt(SHAPES.length)];
+        boolean many = random.nextInt(10) == 0;
+        String[] values = new String[5];
+        for (int v = 0; v < values.length; v++) {
+            //Blank fields fall back to the defaults of getFields()
+            values[v] = random.nextInt(10) == 0 ? "" : String.valueOf(1 + random.nextInt(150));
+        }
+        String count = String.valueOf(10 + random.nextInt(491));
+        Stage popUp = fx(() -> {
+            choose(shape);
+            ParametersController parameters = Controller.getParametersController();
+            parameters.live.setSelected(false);
+            parameters.length.setText(values[0]);
+            parameters.width.setText(values[1]);
+            parameters.radius.setText(values[2]);
+            parameters.height.setText(values[3]);
+            parameters.minorRadius.setText(values[4]);
+            if (many) {
+                parameters.count.setText(count);
+                parameters.drawMany();
+            } else {
+                parameters.drawShape();
+            }
+            return (Stage) parameters.root.getScene().getWindow();
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (fx(popUp::isShowing)) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException(shape + " was not drawn within " + TIMEOUT_SECONDS + " s");
+            }
+            Thread.sleep(5);    //Cube, cone and torus meshes are generated in the background
+        }
+    }
+
+    /*
+     * Calls the handler of the shape's button in the main window
+     */
+    private void choose(String shape) {
+        switch (shape) {
+            case ("circle") -> main.circle();
+            case ("square") -> main.square();
+            case ("triangle") -> main.triangle();
+            case ("rectangle") -> main.rectangle();
+            case ("sphere") -> main.sphere();
+            case ("cube") -> main.cube();
+            case ("cone") -> main.cone();
+            case ("cylinder") -> main.cylinder();
+            case ("torus") -> main.torus();
+            default -> throw new IllegalArgumentException(shape);
+        }
+    }
+
+    /*
+     * Records the frame times of every shape window and hides it, as closing it would.
+     * Runs on the JavaFX thread.
+     */
+    private Void closeShapeWindows() {
+        for (Window window : new ArrayList<>(Window.getWindows())) {
+            if (window == mainStage || !(window instanceof Stage) || window.getScene() == null) {
+                continue;
+            }
+            PerformanceOverlay overlay = PerformanceOverlay.of(window.getScene());
+            if (overlay == null) {
+                continue;   //The parameters window
+            }
+            if (overlay.getFrameCount() > 0) {
+                p50Sum += overlay.getFrameTimePercentile(0.5);
+                p99Sum += overlay.getFrameTimePercentile(0.99);
+                measured++;
+            }
+            stages.put((Stage) window, Boolean.TRUE);
+            window.hide();
+        }
+        return null;
+    }
+
+    /*
+     * Returns windows, heap used in MB after a full gc, shape stages still reachable,
+     * and the mean frame time percentiles of the windows closed since the last sample
+     */
+    private double[] sample(int windows) throws Exception {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);   //Gives the reference handler time to clear the weak keys
+        }
+        double heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024.0 * 1024.0);
+        int reachable = fx(stages::size);
+        double[] s = {windows, heap, reachable, measured == 0 ? 0 : p50Sum / measured,
+                measured == 0 ? 0 : p99Sum / measured};
+        p50Sum = 0;
+        p99Sum = 0;
+        measured = 0;
+        return s;
+    }
+
+    /*
+     * Fits a line through column y of the samples against the number of windows.
+     * The growth is the rise of the line over the samples, or its end to start ratio when relative.
+     * Returns false and reports the column when the growth exceeds the limit.
+     */
+    private static boolean check(String name, List<double[]> samples, int y, double limit, boolean relative,
+                                 String unit) {
+        int n = samples.size();
+        double meanX = 0, meanY = 0;
+        for (double[] s : samples) {
+            meanX += s[0];
+            meanY += s[y];
+        }
+        meanX /= n;
+        meanY /= n;
+        double covariance = 0, variance = 0;
+        for (double[] s : samples) {
+            covariance += (s[0] - meanX) * (s[y] - meanY);
+            variance += (s[0] - meanX) * (s[0] - meanX);
+        }
+        double slope = variance == 0 ? 0 : covariance / variance;
+        double first = meanY + slope * (samples.get(0)[0] - meanX);
+        double last = meanY + slope * (samples.get(n - 1)[0] - meanX);
+        double growth;
+        if (relative) {
+            growth = first > 0 ? last / first : 1;
+        } else {
+            growth = last - first;
+        }
+        boolean passed = growth <= limit;
+        System.out.printf("%s trend: %.2f%s over the run, limit %.2f%s%s%n", name, growth, unit, limit, unit,
+                passed ? "" : "  <-- exceeded");
+        return passed;
+    }
+
+    /*
+     * Runs the call on the JavaFX thread and waits for its result
+     */
+    private static <T> T fx(Callable<T> call) throws InterruptedException, ExecutionException, TimeoutException {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                result.complete(call.call());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        });
+        return result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: Batch.java
+ * Class Name: Draw.Batch
+ * Last Modified: 10/18/26, 5:30 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+/*
+ * Only the geometry package is used, so the batch mode runs without a display
+ * and without starting the JavaFX toolkit.
+ */
+
+import Draw.Geometry.MeshData;
+import Draw.Geometry.MeshExporter;
+import Draw.Geometry.MeshOptimizer;
+import Draw.Geometry.ShapeParameters;
+import Draw.Geometry.Shapes;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * The Batch class is a command line entry point that generates meshes for many shapes.
+ * Usage: java Draw.Batch <spec file> [-threads n] [-out results.csv] [-scale s] [-optimize]
+ *                        [-meshes directory] [-format stl|glb]
+ *
+ * Each line of the spec file is a shape followed by the fields the user would fill in, ex:
+ *   torus radius=40 minorRadius=10
+ *   cone radius=10:100:10 height=50:200:50
+ * A value written start:end:step is a sweep, every combination of the sweeps becomes one mesh.
+ * Blank lines and lines starting with # are ignored.
+ * The values go through the same parsing and normalization as getFields() and the
+ * 3D shapes are generated by the same generators drawShape() draws, so the meshes match the viewer.
+ * The viewer draws the 2D shapes as JavaFX nodes, their meshes here have the same outline and size.
+ *
+ * The meshes are generated on a pool using every core by default.
+ * One CSV line per mesh is written to the output file and a throughput summary
+ * (meshes/sec, triangles/sec, peak heap) is printed when done.
+ * With -optimize every mesh also goes through the MeshOptimizer and the CSV gets its
+ * vertex count and ACMR before and after, and the time it took.
+ * With -meshes every mesh is also saved in that directory as <index>-<shape>.stl, or .glb with -format glb,
+ * the optimized mesh with -optimize. The CSV then gets the file name and the time the write took.
+ */
+public class Batch {
+    /*
+     * The fields of the parameters window, in the order ShapeParameters.parse takes them
+     */
+    private static final String[] FIELDS = {"length", "width", "radius", "height", "minorRadius"};
+
+    /*
+     * A single shape to generate, the values are kept as the text the user would type
+     */
+    static final class Spec {
+        final String shape;
+        final String[] fields;  //Text of each field, same order as FIELDS
+
+        Spec(String shape, String[] fields) {
+            this.shape = shape;
+            this.fields = fields;
+        }
+
+        ShapeParameters parameters() {
+            return ShapeParameters.parse(fields[0], fields[1], fields[2], fields[3], fields[4]);
+        }
+    }
+
+    /*
+     * The result of generating one spec
+     */
+    private static final class Result {
+        final int index;
+        final Spec spec;
+        final int vertices;
+        final int triangles;
+        final long nanos;
+        MeshOptimizer.Result optimized;  //null without -optimize
+        long optimizeNanos;
+        String file;    //null without -meshes
+        long writeNanos;
+
+        Result(int index, Spec spec, MeshData data, long nanos) {
+            this.index = index;
+            this.spec = spec;
+            this.vertices = data.getVertexCount();
+            this.triangles = data.getFaceCount();
+            this.nanos = nanos;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        if (args.length < 1) {
+            System.err.println("Usage: java Draw.Batch <spec file> [-threads n] [-out results.csv] [-scale s]"
+                    + " [-optimize] [-meshes directory] [-format stl|glb]");
+            System.exit(2);
+        }
+        Path specFile = Paths.get(args[0]);
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = Paths.get("results.csv");
+        double scale = 1;
+        boolean optimize = false;
+        Path meshes = null;
+        String format = "stl";
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case ("-threads") -> threads = Integer.parseInt(args[++i]);
+                case ("-out") -> out = Paths.get(args[++i]);
+                case ("-scale") -> scale = Double.parseDouble(args[++i]);
+                case ("-optimize") -> optimize = true;
+                case ("-meshes") -> meshes = Paths.get(args[++i]);
+                case ("-format") -> format = args[++i];
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        if (!format.equals("stl") && !format.equals("glb")) {
+            throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        List<Spec> specs = readSpecs(specFile);
+        run(specs, threads, scale, optimize, meshes, format, out);
+    }
+
+    /*
+     * Reads every spec of the file, expanding the sweeps
+     */
+    static List<Spec> readSpecs(Path file) throws IOException {
+        List<Spec> specs = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                parseLine(line, specs);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(file + ":" + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return specs;
+    }
+
+    /*
+     * Parses one line of the spec file and adds every combination of its values
+     */
+    private static void parseLine(String line, List<Spec> specs) {
+        String[] tokens = line.split("\\s+");
+        String shape = tokens[0];
+        if (!Shapes.NAMES.contains(shape)) {
+            throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+        String[][] values = new String[FIELDS.length][];
+        for (int f = 0; f < FIELDS.length; f++) {
+            values[f] = new String[]{""};   //Untouched fields are empty, like in the window
+        }
+        for (int t = 1; t < tokens.length; t++) {
+            int equals = tokens[t].indexOf('=');
+            int field = equals < 0 ? -1 : fieldIndex(tokens[t].substring(0, equals));
+            if (field < 0) {
+                throw new IllegalArgumentException("Expected <field>=<value>, got " + tokens[t]);
+            }
+            values[field] = expand(tokens[t].substring(equals + 1));
+        }
+        addCombinations(shape, values, new String[FIELDS.length], 0, specs);
+    }
+
+    /*
+     * Returns the position of a field name in FIELDS, -1 if there is no such field
+     */
+    private static int fieldIndex(String name) {
+        for (int f = 0; f < FIELDS.length; f++) {
+            if (FIELDS[f].equals(name)) {
+                return f;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Expands start:end:step into every value of the sweep, anything else is a single value
+     */
+    private static String[] expand(String value) {
+        String[] parts = value.split(":");
+        if (parts.length != 3) {
+            return new String[]{value};
+        }
+        double start = Double.parseDouble(parts[0]);
+        double end = Double.parseDouble(parts[1]);
+        double step = Double.parseDouble(parts[2]);
+        if (step <= 0 || end < start) {
+            throw new IllegalArgumentException("Invalid sweep: " + value);
+        }
+        int count = (int) Math.floor((end - start) / step + 1e-9) + 1;
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            //Plain decimal text, so it passes the same pattern as the text fields
+            values[i] = String.format(Locale.ROOT, "%.6f", start + i * step);
+        }
+        return values;
+    }
+
+    /*
+     * Adds a spec for every combination of the field values
+     */
+    private static void addCombinations(String shape, String[][] values, String[] current, int field,
+                                        List<Spec> specs) {
+        if (field == values.length) {
+            specs.add(new Spec(shape, current.clone()));
+            return;
+        }
+        for (String value : values[field]) {
+            current[field] = value;
+            addCombinations(shape, values, current, field + 1, specs);
+        }
+    }
+
+    /*
+     * Generates every spec on a pool of worker threads and writes the results.
+     * meshes is the directory the meshes are saved in as format files, null to only write the CSV.
+     */
+    static void run(List<Spec> specs, int threads, double scale, boolean optimize, Path meshes, String format,
+                    Path out) throws IOException, InterruptedException, ExecutionException {
+        if (meshes != null) {
+            Files.createDirectories(meshes);
+        }
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            pool.resetPeakUsage();
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        CompletionService<Result> done = new ExecutorCompletionService<>(workers);
+        long start = System.nanoTime();
+        for (int i = 0; i < specs.size(); i++) {
+            int index = i;
+            Spec spec = specs.get(i);
+            done.submit(() -> {
+                long begin = System.nanoTime();
+                MeshData data = Shapes.generate(spec.shape, spec.parameters(), scale);
+                Result result = new Result(index, spec, data, System.nanoTime() - begin);
+                if (optimize) {
+                    begin = System.nanoTime();
+                    result.optimized = MeshOptimizer.optimize(data);
+                    result.optimizeNanos = System.nanoTime() - begin;
+                    data = result.optimized.getMesh();
+                }
+                if (meshes != null) {
+                    begin = System.nanoTime();
+                    result.file = String.format("%04d-%s.%s", index, spec.shape, format);
+                    if (format.equals("glb")) {
+                        MeshExporter.writeGlb(data, meshes.resolve(result.file));
+                    } else {
+                        MeshExporter.writeStl(data, meshes.resolve(result.file));
+                    }
+                    result.writeNanos = System.nanoTime() - begin;
+                }
+                return result;
+            });
+        }
+        long triangles = 0;
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(out, StandardCharsets.UTF_8))) {
+            writer.println("index,shape," + String.join(",", FIELDS) + ",vertices,triangles,micros"
+                    + (optimize ? ",optimized_vertices,acmr_before,acmr_after,optimize_micros" : "")
+                    + (meshes != null ? ",file,write_micros" : ""));
+            for (int i = 0; i < specs.size(); i++) {
+                Result result = done.take().get();
+                triangles += result.triangles;
+                writer.print(result.index + "," + result.spec.shape + "," + String.join(",", result.spec.fields)
+                        + "," + result.vertices + "," + result.triangles + "," + result.nanos / 1000);
+                if (optimize) {
+                    writer.printf(Locale.ROOT, ",%d,%.4f,%.4f,%d", result.optimized.getVerticesAfter(),
+                            result.optimized.getAcmrBefore(), result.optimized.getAcmrAfter(),
+                            result.optimizeNanos / 1000);
+                }
+                if (meshes != null) {
+                    writer.print("," + result.file + "," + result.writeNanos / 1000);
+                }
+                writer.println();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Generated %d meshes (%d triangles) in %.3f s on %d threads%n",
+                specs.size(), triangles, seconds, threads);
+        System.out.printf(Locale.ROOT, "%.1f meshes/sec, %.0f triangles/sec, peak heap %.1f MB%n",
+                specs.size() / seconds, triangles / seconds, peakHeap() / (1024.0 * 1024.0));
+        System.out.println("Results written to " + out.toAbsolutePath());
+        if (meshes != null) {
+            System.out.println("Meshes written to " + meshes.toAbsolutePath());
+        }
+    }
+
+    /*
+     * Returns the sum of the peak usage of every heap pool since the last reset.
+     * The pools peak at different times, so this is an upper bound of the real peak.
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
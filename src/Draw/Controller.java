@@ -17,20 +17,29 @@ package Draw;
 
 /*
  * Imports needed to work with FXML.
- * Import needed for handling expected exceptions
+ * Imports needed for handling expected exceptions and the background loading
  */
 
+import Draw.Geometry.MeshData;
+import Draw.Geometry.MeshImporter;
+import Draw.Geometry.MeshOptimizer;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
+import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /*
  * The controller class represents the controller for the draw.fxml window.
- * Contains an initialize method which is called during the creation of the controller by JavaFX.
+ * The popup window is loaded after the main window appears, see preload().
  * Note that @FXML methods are called via injection/reflection and not traditional ways.
  * A controller responds to action events asynchronously in JavaFX.
  * Note that rather than having a scene for each option, one scene is used and modified.
@@ -42,6 +51,10 @@ import java.io.IOException;
  * This approach results in less code and is much easier to maintain in my opinion.
  */
 public class Controller {
+    /*
+     * Prints the optimization of imported meshes, -Ddraw.diagnostics=true
+     */
+    private static final boolean LOG = Boolean.getBoolean("draw.diagnostics");
     /*
      * Class variables since there will only be 1 instance of this class
      * Allows each method to use/modify these resources rather than creating their own copy.
@@ -51,31 +64,63 @@ public class Controller {
     private static ParametersController controller;    //The controller for the popup screen
 
     /*
-     * The initialize method is called by JavaFX during controller creation.
-     * This is preferred to the use of a constructor in JavaFX.
-     * Loads the parameters.fxml file and creates the popup window
-     * Throws an IOException, handled by JavaFX, if the file can not be found
+     * Loads the popup window on the JavaFX thread once the pending events were handled.
+     * Called once the main window has been painted, so the popup is not on the path to the first window.
+     * The controller builds scene graph objects in initialize(), so the FXML can not be loaded on
+     * another thread, the mesh generation is warmed up in the background instead (see Startup).
+     * A failure is left for the first click to report.
      */
-    @FXML
-    public void initialize() throws IOException {
-        popUp = new Stage();    //Creates the window to be shown to the user
+    public static void preload() {
+        Platform.runLater(() -> {
+            try {
+                loadPopUp();
+            } catch (UncheckedIOException e) {
+                //Tried again, and reported, when a shape is chosen
+            }
+        });
+    }
+
+    /*
+     * Creates the popup window, when preload() did not already.
+     * Throws an UncheckedIOException, handled by JavaFX, if the file can not be found
+     */
+    private static void loadPopUp() {
+        if (popUp != null) {
+            return;
+        }
         //Creating a FXMLLoader object enables modification of FXML objects programmatically.
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("parameters.fxml"));
-        Parent sliderScene = loader.load(); //Loads parameters.fxml and creates a layout based on it
+        FXMLLoader loader = new FXMLLoader(Controller.class.getResource("parameters.fxml"));
+        try {
+            loader.load();  //Loads parameters.fxml and creates a layout based on it
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Startup.mark(Startup.POPUP_READY);
+        popUp = new Stage();    //Creates the window to be shown to the user
         controller = loader.getController();    //Gets the created controller so FXML objects can be changed
-        //Sets the scene to the layout stored in sliderScene.
-        popUp.setScene(new Scene(sliderScene, 300, 300));
+        //Sets the scene to the layout stored in the loader.
+        popUp.setScene(new Scene(loader.getRoot(), 300, 300));
         //popUp.setResizable(false);
         //Resets the fields when the user closes the window
         popUp.setOnCloseRequest(windowEvent -> {
+            controller.stopPreview();   //Clearing the fields would reset the live shape
             controller.length.setText("");
             controller.width.setText("");
             controller.radius.setText("");
             controller.height.setText("");
             controller.minorRadius.setText("");
+            controller.count.setText("");
         });
     }
 
+    /*
+     * Returns the controller of the popup window, null until a shape was chosen.
+     * Used by the soak test to fill in the fields and draw the shape.
+     */
+    static ParametersController getParametersController() {
+        return controller;
+    }
+
     /*
      * Event Handler for the circle button.
      * Sets only the radius option to be modifiable.
@@ -83,6 +128,7 @@ public class Controller {
      */
     @FXML
     public void circle() {
+        loadPopUp();    //Creates the popup on the first click
         disableAll();
         controller.radius.setDisable(false);    //Re enables the radius textField
         controller.choice.setText("circle");    //Sets the users choice in an invisible text field
@@ -96,6 +142,7 @@ public class Controller {
      */
     @FXML
     public void square() {
+        loadPopUp();    //Creates the popup on the first click
         disableAll();
         controller.length.setDisable(false);    //Sets length field to be modifiable
         controller.choice.setText("square");    //Sets the users choice in an invisible text field
@@ -109,6 +156,7 @@ public class Controller {
      */
     @FXML
     public void triangle() {
+        loadPopUp();    //Creates the popup on the first click
         disableAll();
         controller.length.setDisable(false);    //Sets the length field to be modifiable
         controller.choice.setText("triangle");  //Sets the users choice in an invisible text field
@@ -122,6 +170,7 @@ public class Controller {
      */
     @FXML
     public void rectangle() {
+        loadPopUp();    //Creates the popup on the first click
         disableAll();
         controller.length.setDisable(false);    //Sets length to be modifiable
         controller.width.setDisable(false);     //Sets width to be modifiable
@@ -136,6 +185,7 @@ public class Controller {
      */
     @FXML
     public void sphere() {
+        loadPopUp();    //Creates the popup on the first click
         disableAll();
         controller.radius.setDisable(false);    //Sets radius to be modifiable
         controller.choice.setText("sphere");    //Stores the users choice
@@ -149,6 +199,7 @@ public class Controller {
      */
     @FXML
     public void cube() {
+        loadPopUp();    //Creates the popup on the first click
         disableAll();
         controller.length.setDisable(false);    //Sets length to be modifiable
         controller.choice.setText("cube");      //Sets invisible field to cube
@@ -162,6 +213,7 @@ public class Controller {
      */
     @FXML
     public void cone() {
+        loadPopUp();    //Creates the popup on the first click
         disableAll();
         controller.radius.setDisable(false);    //Sets radius to be modifiable
         controller.height.setDisable(false);    //Sets height to be modifiable
@@ -176,6 +228,7 @@ public class Controller {
      */
     @FXML
     public void cylinder() {
+        loadPopUp();    //Creates the popup on the first click
         disableAll();
         controller.radius.setDisable(false);    //Sets radius to be modifiable
         controller.height.setDisable(false);    //Sets height to be modifiable
@@ -190,6 +243,7 @@ public class Controller {
      */
     @FXML
     public void torus() {
+        loadPopUp();    //Creates the popup on the first click
         disableAll();
         controller.radius.setDisable(false);        //Sets radius to be modifiable
         controller.minorRadius.setDisable(false);   //Sets the minor radius to be modifiable
@@ -197,6 +251,41 @@ public class Controller {
         popUp.show();   //Shows the window
     }
 
+    /*
+     * Event handler for the import button
+     * Asks for a binary STL or OBJ file and shows it spinning like the other shapes.
+     * The file is read and optimized on a background thread, large meshes take a while.
+     */
+    @FXML
+    public void importMesh(ActionEvent event) {
+        loadPopUp();    //The popup's controller draws the mesh
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Mesh");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Meshes", "*.stl", "*.obj"));
+        File file = chooser.showOpenDialog(((Node) event.getSource()).getScene().getWindow());
+        if (file == null) {
+            return; //The user cancelled
+        }
+        Thread reader = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                //STL repeats every vertex for each triangle, welding shrinks it about 6 times
+                MeshOptimizer.Result optimized = MeshOptimizer.optimize(MeshImporter.read(file.toPath()));
+                MeshData mesh = optimized.getMesh();
+                long loadNanos = System.nanoTime() - start;
+                if (LOG) {
+                    System.err.println("Imported " + file + ": " + optimized);
+                }
+                Platform.runLater(() -> controller.drawImported(mesh, loadNanos));
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                Platform.runLater(() -> new Alert(Alert.AlertType.ERROR,
+                        "Could not import " + file + ": " + e.getMessage()).show());
+            }
+        }, "mesh-import");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
     /*
      * Disables all fields
      * This method exists because it prevents duplication of code as it is
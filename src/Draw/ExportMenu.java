@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: ExportMenu.java
+ * Class Name: Draw.ExportMenu
+ * Last Modified: 10/18/26, 6:45 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.MeshData;
+import Draw.Geometry.MeshExporter;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.ContextMenu;
+import javafx.scene.control.MenuItem;
+import javafx.stage.FileChooser;
+import javafx.stage.Stage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/*
+ * The ExportMenu class adds an Export action to a shape window.
+ * Right clicking the window opens a menu to save the shape as binary STL or glTF.
+ * The mesh is generated and written on a background thread so large exports do not freeze the window.
+ * Shapes are exported at scale 1 (one pixel per unit) so the file only depends on the dimensions,
+ * not at the level of detail on screen, which follows the size and zoom of the window.
+ */
+public final class ExportMenu {
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private ExportMenu() {
+    }
+
+    /*
+     * Installs the export menu on the scene of a shape window.
+     * The supplier is called on the export thread and returns the mesh to save.
+     */
+    public static void install(Stage stage, Scene scene, Supplier<MeshData> mesh) {
+        MenuItem stl = new MenuItem("Export STL...");
+        stl.setOnAction(event -> export(stage, mesh, "STL", "*.stl"));
+        MenuItem glb = new MenuItem("Export glTF...");
+        glb.setOnAction(event -> export(stage, mesh, "Binary glTF", "*.glb"));
+        ContextMenu menu = new ContextMenu(stl, glb);
+        scene.setOnContextMenuRequested(event -> menu.show(stage, event.getScreenX(), event.getScreenY()));
+    }
+
+    /*
+     * Asks for a file and writes the mesh to it in the chosen format
+     */
+    private static void export(Stage stage, Supplier<MeshData> mesh, String description, String extension) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Shape");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(description, extension));
+        File file = chooser.showSaveDialog(stage);
+        if (file == null) {
+            return; //The user cancelled
+        }
+        Thread writer = new Thread(() -> {
+            try {
+                if (extension.equals("*.stl")) {
+                    MeshExporter.writeStl(mesh.get(), file.toPath());
+                } else {
+                    MeshExporter.writeGlb(mesh.get(), file.toPath());
+                }
+            } catch (IOException | RuntimeException e) {
+                Platform.runLater(() -> new Alert(Alert.AlertType.ERROR,
+                        "Could not export to " + file + ": " + e.getMessage()).show());
+            }
+        }, "shape-export");
+        writer.setDaemon(true);
+        writer.start();
+    }
+}
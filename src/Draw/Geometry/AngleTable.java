@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: AngleTable.java
+ * Class Name: Draw.Geometry.AngleTable
+ * Last Modified: 10/18/26, 10:04 AM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * The AngleTable class holds the cosine and sine of every step around a full circle.
+ * Tables are cached per segment count so repeated generation of the same
+ * resolution does not call Math.cos/Math.sin again.
+ * The tables are never modified after creation and may be shared between threads.
+ */
+public final class AngleTable {
+    private static final ConcurrentHashMap<Integer, AngleTable> CACHE = new ConcurrentHashMap<>();
+    private final double[] cos; //cos of every step, index 0 is 0 radians
+    private final double[] sin; //sin of every step, index 0 is 0 radians
+
+    /*
+     * Builds the table for the given number of segments
+     */
+    private AngleTable(int segments) {
+        cos = new double[segments];
+        sin = new double[segments];
+        double delta = 2 * Math.PI / segments;
+        for (int i = 0; i < segments; i++) {
+            cos[i] = Math.cos(i * delta);
+            sin[i] = Math.sin(i * delta);
+        }
+    }
+
+    /*
+     * Returns the shared table for the given number of segments, creating it if needed
+     */
+    public static AngleTable of(int segments) {
+        if (segments < 3) {
+            throw new IllegalArgumentException("At least 3 segments are needed, got " + segments);
+        }
+        return CACHE.computeIfAbsent(segments, AngleTable::new);
+    }
+
+    public int size() {
+        return cos.length;
+    }
+
+    public double cos(int step) {
+        return cos[step];
+    }
+
+    public double sin(int step) {
+        return sin[step];
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: BoxGenerator.java
+ * Class Name: Draw.Geometry.BoxGenerator
+ * Last Modified: 10/18/26, 4:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The BoxGenerator class builds a box centered on the origin, like the built in JavaFX Box.
+ * The 8 corners are shared by all 6 sides, every side maps the full texture.
+ * Every side has its own smoothing group, so the edges stay sharp.
+ */
+public final class BoxGenerator {
+    /*
+     * The 4 corners of every side, ordered so the triangles face outwards.
+     * Corner bit 1 is +X, bit 2 is +Y and bit 4 is +Z.
+     */
+    private static final int[][] SIDES = {
+            {1, 3, 7, 5},   //+X
+            {0, 4, 6, 2},   //-X
+            {2, 6, 7, 3},   //+Y
+            {0, 1, 5, 4},   //-Y
+            {4, 5, 7, 6},   //+Z
+            {0, 2, 3, 1}    //-Z
+    };
+    private static final float[] TEX_COORDS = {
+            0, 0,
+            0, 1,
+            1, 1,
+            1, 0
+    };
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private BoxGenerator() {
+    }
+
+    /*
+     * Generates a box with the given width (X), height (Y) and depth (Z)
+     */
+    public static MeshData generate(double width, double height, double depth) {
+        float[] points = new float[8 * 3];
+        for (int corner = 0; corner < 8; corner++) {
+            points[corner * 3] = (float) ((corner & 1) == 0 ? -width / 2 : width / 2);
+            points[corner * 3 + 1] = (float) ((corner & 2) == 0 ? -height / 2 : height / 2);
+            points[corner * 3 + 2] = (float) ((corner & 4) == 0 ? -depth / 2 : depth / 2);
+        }
+        int[] faces = new int[SIDES.length * 12];
+        int[] groups = new int[SIDES.length * 2];
+        int f = 0;
+        for (int side = 0; side < SIDES.length; side++) {
+            int[] corners = SIDES[side];
+            f = MeshData.writeFace(faces, f, corners[0], 0, corners[1], 1, corners[2], 2);
+            f = MeshData.writeFace(faces, f, corners[0], 0, corners[2], 2, corners[3], 3);
+            groups[side * 2] = groups[side * 2 + 1] = 1 << side;
+        }
+        return new MeshData(points, TEX_COORDS.clone(), faces, groups);
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: Bvh.java
+ * Class Name: Draw.Geometry.Bvh
+ * Last Modified: 10/18/26, 9:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.util.Arrays;
+
+/*
+ * The Bvh class is a bounding volume hierarchy over items that each have an axis aligned box.
+ * It answers "which item does this ray hit first" by only visiting the boxes along the ray,
+ * so a pick costs about log(n) box tests instead of one test per item.
+ *
+ * The tree is built once by splitting the items at the median of their centers along the
+ * longest axis, down to LEAF_SIZE items per leaf. The nodes are primitive arrays in depth first
+ * order, a node's left child is the next node and its parent always comes before it.
+ * When items move, invalidate() marks them and refit() recomputes only the boxes on their path
+ * to the root, the shape of the tree is kept. That is much cheaper than a rebuild and stays
+ * efficient as long as the items move around their original place, like spinning shapes.
+ * Not thread safe, a tree may be queried from several threads when it is not being refit.
+ */
+public final class Bvh {
+    private static final int LEAF_SIZE = 4;
+    private static final int MAX_DEPTH = 64;    //Median splits stay far below this
+
+    /*
+     * Writes minX, minY, minZ, maxX, maxY, maxZ of an item into box
+     */
+    public interface Bounds {
+        void bounds(int item, float[] box);
+    }
+
+    /*
+     * Tests the ray against the item itself, its box was hit.
+     * Returns the distance along the ray of the hit, or a value >= maxDistance (ex: infinity) if it missed.
+     */
+    public interface RayTest {
+        double test(int item, double maxDistance);
+    }
+
+    private final Bounds source;
+    private final int[] items;  //Item order of the leaves
+    private final int[] leafOf; //Leaf of every item
+    private final float[] box;  //6 floats per node
+    private final int[] first;  //Leaf: position of its first item, inner node: its right child
+    private final int[] count;  //Leaf: number of items, inner node: 0
+    private final int[] parent; //-1 for the root
+    private final boolean[] dirty;
+    private final float[] scratch = new float[6];
+    private int nodeCount;
+    private boolean anyDirty;
+
+    /*
+     * Builds the tree over items 0 to itemCount - 1
+     */
+    public Bvh(int itemCount, Bounds source) {
+        this.source = source;
+        items = new int[itemCount];
+        leafOf = new int[itemCount];
+        int maxNodes = Math.max(1, 2 * itemCount - 1);   //A binary tree with a leaf per item at most
+        box = new float[maxNodes * 6];
+        first = new int[maxNodes];
+        count = new int[maxNodes];
+        parent = new int[maxNodes];
+        dirty = new boolean[maxNodes];
+        float[] centers = new float[itemCount * 3];
+        for (int i = 0; i < itemCount; i++) {
+            items[i] = i;
+            source.bounds(i, scratch);
+            centers[i * 3] = (scratch[0] + scratch[3]) / 2;
+            centers[i * 3 + 1] = (scratch[1] + scratch[4]) / 2;
+            centers[i * 3 + 2] = (scratch[2] + scratch[5]) / 2;
+        }
+        build(0, itemCount, -1, centers, 0);
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            computeBox(node);
+        }
+    }
+
+    public int getItemCount() {
+        return items.length;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /*
+     * Creates the node for items from to to, and its children, returns its index
+     */
+    private int build(int from, int to, int parentNode, float[] centers, int depth) {
+        int node = nodeCount++;
+        parent[node] = parentNode;
+        if (to - from <= LEAF_SIZE || depth >= MAX_DEPTH - 2) {
+            first[node] = from;
+            count[node] = to - from;
+            for (int i = from; i < to; i++) {
+                leafOf[items[i]] = node;
+            }
+            return node;
+        }
+        //Longest axis of the box around the centers
+        float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+        float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (int i = from; i < to; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                float c = centers[items[i] * 3 + axis];
+                min[axis] = Math.min(min[axis], c);
+                max[axis] = Math.max(max[axis], c);
+            }
+        }
+        int axis = 0;
+        for (int a = 1; a < 3; a++) {
+            if (max[a] - min[a] > max[axis] - min[axis]) {
+                axis = a;
+            }
+        }
+        int middle = (from + to) >>> 1;
+        select(from, to - 1, middle, centers, axis);
+        count[node] = 0;
+        build(from, middle, node, centers, depth + 1);  //Left child is node + 1
+        first[node] = build(middle, to, node, centers, depth + 1);
+        return node;
+    }
+
+    /*
+     * Reorders items from lo to hi so the k-th smallest center along the axis is at k,
+     * smaller ones before it and larger ones after it
+     */
+    private void select(int lo, int hi, int k, float[] centers, int axis) {
+        while (hi > lo) {
+            float pivot = centers[items[(lo + hi) >>> 1] * 3 + axis];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (centers[items[i] * 3 + axis] < pivot) {
+                    i++;
+                }
+                while (centers[items[j] * 3 + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = items[i];
+                    items[i++] = items[j];
+                    items[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /*
+     * Marks an item whose box changed, its path to the root is recomputed by the next refit()
+     */
+    public void invalidate(int item) {
+        for (int node = leafOf[item]; node >= 0 && !dirty[node]; node = parent[node]) {
+            dirty[node] = true;
+        }
+        anyDirty = true;
+    }
+
+    /*
+     * Marks every item, the next refit() recomputes every box
+     */
+    public void invalidateAll() {
+        Arrays.fill(dirty, 0, nodeCount, true);
+        anyDirty = nodeCount > 0;
+    }
+
+    /*
+     * Recomputes the boxes of the marked items and of their parents, children first
+     */
+    public void refit() {
+        if (!anyDirty) {
+            return;
+        }
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            if (dirty[node]) {
+                computeBox(node);
+                dirty[node] = false;
+            }
+        }
+        anyDirty = false;
+    }
+
+    /*
+     * Sets the box of a node from its items or from its children
+     */
+    private void computeBox(int node) {
+        int b = node * 6;
+        box[b] = box[b + 1] = box[b + 2] = Float.MAX_VALUE;
+        box[b + 3] = box[b + 4] = box[b + 5] = -Float.MAX_VALUE;
+        if (count[node] > 0) {
+            for (int i = first[node]; i < first[node] + count[node]; i++) {
+                source.bounds(items[i], scratch);
+                union(b, scratch, 0);
+            }
+        } else if (nodeCount > 1) {
+            union(b, box, (node + 1) * 6);
+            union(b, box, first[node] * 6);
+        }
+    }
+
+    private void union(int b, float[] other, int o) {
+        for (int axis = 0; axis < 3; axis++) {
+            box[b + axis] = Math.min(box[b + axis], other[o + axis]);
+            box[b + 3 + axis] = Math.max(box[b + 3 + axis], other[o + 3 + axis]);
+        }
+    }
+
+    /*
+     * Returns the closest item hit by the ray from (ox, oy, oz) along (dx, dy, dz), -1 if none.
+     * Distances are in units of the direction's length, only hits closer than maxDistance count.
+     * The distance of the hit is written to distance[0].
+     * Call refit() first if items were invalidated.
+     */
+    public int raycast(double ox, double oy, double oz, double dx, double dy, double dz, double maxDistance,
+                       RayTest test, double[] distance) {
+        if (items.length == 0) {
+            return -1;  //The root is an empty leaf
+        }
+        double best = maxDistance;
+        int hit = -1;
+        int[] stack = new int[MAX_DEPTH * 2];
+        int top = 0;
+        if (rayBox(box, 0, ox, oy, oz, dx, dy, dz) < best) {
+            stack[top++] = 0;
+        }
+        while (top > 0) {
+            int node = stack[--top];
+            if (rayBox(box, node * 6, ox, oy, oz, dx, dy, dz) >= best) {
+                continue;   //A closer hit was found since it was pushed
+            }
+            if (count[node] > 0) {
+                for (int i = first[node]; i < first[node] + count[node]; i++) {
+                    double t = test.test(items[i], best);
+                    if (t < best) {
+                        best = t;
+                        hit = items[i];
+                    }
+                }
+                continue;
+            }
+            int left = node + 1;
+            int right = first[node];
+            double tLeft = rayBox(box, left * 6, ox, oy, oz, dx, dy, dz);
+            double tRight = rayBox(box, right * 6, ox, oy, oz, dx, dy, dz);
+            //The nearer child is popped first, so the farther one is usually skipped
+            if (tLeft <= tRight) {
+                if (tRight < best) {
+                    stack[top++] = right;
+                }
+                if (tLeft < best) {
+                    stack[top++] = left;
+                }
+            } else {
+                if (tLeft < best) {
+                    stack[top++] = left;
+                }
+                if (tRight < best) {
+                    stack[top++] = right;
+                }
+            }
+        }
+        if (hit >= 0) {
+            distance[0] = best;
+        }
+        return hit;
+    }
+
+    /*
+     * Returns the distance at which the ray enters the box at box[b], 0 if it starts inside,
+     * infinity if it misses. Also used by the RayTests of items that are only known by their box.
+     */
+    public static double rayBox(float[] box, int b, double ox, double oy, double oz,
+                                double dx, double dy, double dz) {
+        double near = 0;
+        double far = Double.POSITIVE_INFINITY;
+        //Unrolled, this runs for every node visited
+        if (dx != 0) {
+            double t1 = (box[b] - ox) / dx;
+            double t2 = (box[b + 3] - ox) / dx;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        } else if (ox < box[b] || ox > box[b + 3]) {
+            return Double.POSITIVE_INFINITY;    //Parallel to the slab and outside of it
+        }
+        if (dy != 0) {
+            double t1 = (box[b + 1] - oy) / dy;
+            double t2 = (box[b + 4] - oy) / dy;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        } else if (oy < box[b + 1] || oy > box[b + 4]) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (dz != 0) {
+            double t1 = (box[b + 2] - oz) / dz;
+            double t2 = (box[b + 5] - oz) / dz;
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        } else if (oz < box[b + 2] || oz > box[b + 5]) {
+            return Double.POSITIVE_INFINITY;
+        }
+        if (near > far) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return near;
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: ConeGenerator.java
+ * Class Name: Draw.Geometry.ConeGenerator
+ * Last Modified: 10/18/26, 10:04 AM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The ConeGenerator class builds the side of a cone or truncated cone (frustum).
+ * Vertices are shared between neighbouring segments, so a ring only holds 1 vertex per segment.
+ * When the upper radius is 0 the whole top ring collapses into a single apex vertex
+ * and the degenerate triangles are not emitted.
+ * The axis of the cone is Z, the base sits at -h/2 and the top at h/2.
+ * The rings are rows of a ParametricSurface evaluated on a Tessellator grid without the seam column,
+ * the faces wrap around to the first vertex instead. The cone keeps its own faces to share the ring
+ * vertices with the caps.
+ * Math and inspiration from:
+ * https://stackoverflow.com/questions/32392456/how-to-create-hollow-cylinder-and-truncated-cone-with-javafx
+ */
+public final class ConeGenerator {
+    /*
+     * The 3 texture coordinates used by every triangle, same as the original cone
+     */
+    private static final float[] TEX_COORDS = {
+            0.5f, 0,
+            0, 1,
+            1, 1
+    };
+    private static final int SIDE = 1;  //Smoothing groups
+    private static final int BOTTOM_CAP = 2;
+    private static final int TOP_CAP = 4;
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private ConeGenerator() {
+    }
+
+    /*
+     * Generates the side of a cone.
+     * r1 is the lower radius, r2 the upper radius (0 for a regular cone) and h the height.
+     */
+    public static MeshData generate(double r1, double r2, double h, int segments) {
+        return generate(r1, r2, h, segments, ParallelRows.worthIt(segments * 2L));
+    }
+
+    /*
+     * Generates the side of a cone, splitting the faces of the segments into blocks on the ForkJoinPool
+     * when parallel is set. The result is the same either way.
+     */
+    public static MeshData generate(double r1, double r2, double h, int segments, boolean parallel) {
+        return build(r1, r2, h, segments, false, parallel);
+    }
+
+    /*
+     * Generates a closed cone, the side plus a cap over the base.
+     * A truncated cone also gets a cap over the top.
+     * The caps reuse the ring vertices, only their center point is added.
+     * The side and each cap are in their own smoothing group, so the rims stay sharp.
+     */
+    public static MeshData generateClosed(double r1, double r2, double h, int segments) {
+        return generateClosed(r1, r2, h, segments, ParallelRows.worthIt(segments * 2L));
+    }
+
+    /*
+     * Generates a closed cone, splitting the segments into blocks on the ForkJoinPool
+     * when parallel is set. The result is the same either way.
+     */
+    public static MeshData generateClosed(double r1, double r2, double h, int segments, boolean parallel) {
+        return build(r1, r2, h, segments, true, parallel);
+    }
+
+    /*
+     * Rewrites only the vertices of a cone into an existing points array.
+     * The texture coordinates and faces only depend on the segment count, the caps and whether r2 is 0,
+     * so a cone with new radii or height but the same segments can keep them.
+     * Throws an IllegalArgumentException if the array does not have the size of the cone.
+     */
+    public static void writePoints(double r1, double r2, double h, int segments, boolean closed, float[] points) {
+        build(r1, r2, h, segments, closed, ParallelRows.worthIt(segments * 2L), points, null);
+    }
+
+    /*
+     * Builds the cone, with or without caps
+     */
+    private static MeshData build(double r1, double r2, double h, int segments, boolean caps, boolean parallel) {
+        boolean apex = r2 == 0;
+        int topCount = apex ? 1 : segments;
+        int capCount = caps ? (apex ? 1 : 2) : 0;
+        int faceSize = (apex ? 6 : 12) + capCount * 6;
+        float[] points = new float[(segments + topCount + capCount) * 3];
+        int[] faces = new int[segments * faceSize];
+        build(r1, r2, h, segments, caps, parallel, points, faces);
+        int[] groups = new int[faces.length / 6];
+        int perSegment = faceSize / 6;
+        for (int s = 0; s < segments; s++) {
+            int g = s * perSegment;
+            groups[g++] = SIDE;
+            if (!apex) {
+                groups[g++] = SIDE;
+            }
+            if (caps) {
+                groups[g++] = BOTTOM_CAP;
+                if (!apex) {
+                    groups[g] = TOP_CAP;
+                }
+            }
+        }
+        return new MeshData(points, TEX_COORDS.clone(), faces, groups);
+    }
+
+    /*
+     * Writes the vertices and, unless faces is null, the faces of the cone
+     * Every segment writes its own faces, so segments are independent
+     */
+    private static void build(double r1, double r2, double h, int segments, boolean caps, boolean parallel,
+                              float[] points, int[] faces) {
+        Tessellator.Grid grid = Tessellator.ring(segments, 1);
+        boolean apex = r2 == 0;  //A regular cone only needs 1 top vertex
+        int topCount = apex ? 1 : segments;
+        int bottomCap = caps ? 1 : 0;   //Center of the base
+        int topCap = caps && !apex ? 1 : 0; //Center of the top of a truncated cone
+        float bottom = (float) (-h / 2);
+        float top = (float) (h / 2);
+        int bottomCenter = segments + topCount;
+        int topCenter = bottomCenter + bottomCap;
+        //1 triangle per segment for a cone, 2 for a frustum, plus 1 per segment for each cap
+        int faceSize = (apex ? 6 : 12) + (bottomCap + topCap) * 6;
+        //Lower ring first, then either the apex or the upper ring, then the cap centers
+        if (points.length != (segments + topCount + bottomCap + topCap) * 3) {
+            throw new IllegalArgumentException("Points array does not match a cone with " + segments
+                    + " segments: " + points.length);
+        }
+
+        ParametricSurface side = surface(r1, r2, h);
+        side.positions(grid, 1, points, 0);     //Lower ring, v = 1
+        if (!apex) {
+            side.positions(grid, 0, points, segments * 3);  //Upper ring, v = 0
+        }
+        if (faces != null) {
+            ParallelRows.run(segments, 2, parallel, (from, to) -> {
+                for (int s = from; s < to; s++) {
+                    int next = (s + 1) % segments;
+                    int topLeft = apex ? segments : segments + s;
+                    int i = s * faceSize;
+                    i = MeshData.writeFace(faces, i, topLeft, 0, s, 1, next, 2);
+                    if (!apex) {
+                        i = MeshData.writeFace(faces, i, topLeft, 0, next, 1, segments + next, 2);
+                    }
+                    if (bottomCap == 1) {
+                        i = MeshData.writeFace(faces, i, bottomCenter, 0, next, 1, s, 2);  //Faces down
+                    }
+                    if (topCap == 1) {
+                        MeshData.writeFace(faces, i, topCenter, 0, segments + s, 1, segments + next, 2); //Faces up
+                    }
+                }
+            });
+        }
+        //The apex and the cap centers are on the axis
+        if (apex) {
+            setPoint(points, segments, 0, 0, top);
+        }
+        if (bottomCap == 1) {
+            setPoint(points, bottomCenter, 0, 0, bottom);
+        }
+        if (topCap == 1) {
+            setPoint(points, topCenter, 0, 0, top);
+        }
+    }
+
+    /*
+     * Returns the side of the cone as a surface, u goes around the Z axis and v from the top (v = 0)
+     * down to the base, so the normal points out.
+     * The radius and height are interpolated so that v = 0 and v = 1 give r2, h/2 and r1, -h/2 exactly.
+     */
+    static ParametricSurface surface(double r1, double r2, double h) {
+        return new ParametricSurface() {
+            @Override
+            public void position(double u, double v, float[] out, int offset) {
+                double radius = v * r1 + (1 - v) * r2;
+                double angle = 2 * Math.PI * u;
+                out[offset] = (float) (Math.cos(angle) * radius);
+                out[offset + 1] = (float) (Math.sin(angle) * radius);
+                out[offset + 2] = (float) ((1 - v) * h / 2 - v * h / 2);
+            }
+
+            @Override
+            public void positions(Tessellator.Grid grid, int row, float[] out, int offset) {
+                double v = grid.v(row);
+                double radius = v * r1 + (1 - v) * r2;  //Only depends on the row
+                float z = (float) ((1 - v) * h / 2 - v * h / 2);
+                int columns = grid.getColumns();
+                for (int column = 0; column < columns; column++) {
+                    out[offset++] = (float) (grid.cos(column) * radius);
+                    out[offset++] = (float) (grid.sin(column) * radius);
+                    out[offset++] = z;
+                }
+            }
+
+            @Override
+            public boolean collapsesAtStart() {
+                return r2 == 0;     //The apex
+            }
+        };
+    }
+
+    /*
+     * Writes a single vertex, the array may hold an older cone so every coordinate is set
+     */
+    private static void setPoint(float[] points, int index, float x, float y, float z) {
+        points[index * 3] = x;
+        points[index * 3 + 1] = y;
+        points[index * 3 + 2] = z;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: CylinderGenerator.java
+ * Class Name: Draw.Geometry.CylinderGenerator
+ * Last Modified: 10/18/26, 4:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The CylinderGenerator class builds a closed cylinder centered on the origin.
+ * The axis is Y like the built in JavaFX Cylinder.
+ * The rings are rows of a ParametricSurface evaluated on a Tessellator grid without the seam column.
+ * Points are shared between the side and the caps, the side uses its own
+ * texture coordinates with a duplicated seam so the texture wraps cleanly.
+ * The side and the caps are in separate smoothing groups, so the rims stay sharp.
+ */
+public final class CylinderGenerator {
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private CylinderGenerator() {
+    }
+
+    /*
+     * Generates a cylinder with the given radius, height and number of divisions around
+     */
+    public static MeshData generate(double radius, double height, int segments) {
+        AngleTable angles = AngleTable.of(segments);
+        //Lower ring, upper ring, lower center, upper center
+        float[] points = new float[(segments * 2 + 2) * 3];
+        writePoints(radius, height, segments, points);
+        int bottomCenter = segments * 2;
+        int topCenter = bottomCenter + 1;
+
+        //Side texture is a strip, lower row then upper row, the caps use the disk texture
+        float[] uv = new float[((segments + 1) * 2 + segments + 1) * 2];
+        int t = 0;
+        for (int row = 0; row < 2; row++) {
+            for (int s = 0; s <= segments; s++) {
+                uv[t++] = (float) s / segments;
+                uv[t++] = 1 - row;
+            }
+        }
+        int disk = (segments + 1) * 2;  //First cap texture coordinate
+        for (int s = 0; s < segments; s++) {
+            uv[t++] = (float) (0.5 + 0.5 * angles.cos(s));
+            uv[t++] = (float) (0.5 + 0.5 * angles.sin(s));
+        }
+        uv[t++] = 0.5f;
+        uv[t] = 0.5f;
+        int diskCenter = disk + segments;
+
+        int[] faces = new int[segments * 4 * 6];
+        int[] groups = new int[segments * 4];
+        int f = 0;
+        for (int s = 0; s < segments; s++) {
+            int next = (s + 1) % segments;
+            //Side, texture indices run past the seam instead of wrapping
+            f = MeshData.writeFace(faces, f, s, s, segments + s, segments + 1 + s, next, s + 1);
+            f = MeshData.writeFace(faces, f, segments + s, segments + 1 + s,
+                    segments + next, segments + 2 + s, next, s + 1);
+            //Caps
+            f = MeshData.writeFace(faces, f, bottomCenter, diskCenter, s, disk + s, next, disk + next);
+            f = MeshData.writeFace(faces, f, topCenter, diskCenter,
+                    segments + next, disk + next, segments + s, disk + s);
+            groups[s * 4] = groups[s * 4 + 1] = 1;  //Side
+            groups[s * 4 + 2] = 2;  //Bottom cap
+            groups[s * 4 + 3] = 4;  //Top cap
+        }
+        return new MeshData(points, uv, faces, groups);
+    }
+
+    /*
+     * Rewrites only the vertices of a cylinder into an existing points array.
+     * The texture coordinates and faces only depend on the segment count.
+     * Throws an IllegalArgumentException if the array does not have the size of the cylinder.
+     */
+    public static void writePoints(double radius, double height, int segments, float[] points) {
+        Tessellator.Grid grid = Tessellator.ring(segments, 1);
+        if (points.length != (segments * 2 + 2) * 3) {
+            throw new IllegalArgumentException("Points array does not match a cylinder with " + segments
+                    + " segments: " + points.length);
+        }
+        ParametricSurface side = surface(radius, height);
+        side.positions(grid, 0, points, 0);     //Lower ring, v = 0
+        side.positions(grid, 1, points, segments * 3);  //Upper ring, v = 1
+        int p = segments * 6;
+        //The centers of the caps are on the axis
+        points[p] = 0;
+        points[p + 1] = (float) (-height / 2);
+        points[p + 2] = 0;
+        points[p + 3] = 0;
+        points[p + 4] = (float) (height / 2);
+        points[p + 5] = 0;
+    }
+
+    /*
+     * Returns the side of the cylinder as a surface, u goes around the Y axis and v from y = -height/2
+     * (the top on screen, Y points down) to height/2, so the normal points out
+     */
+    static ParametricSurface surface(double radius, double height) {
+        return new ParametricSurface() {
+            @Override
+            public void position(double u, double v, float[] out, int offset) {
+                double angle = 2 * Math.PI * u;
+                out[offset] = (float) (radius * Math.cos(angle));
+                out[offset + 1] = (float) ((v - 0.5) * height);
+                out[offset + 2] = (float) (radius * Math.sin(angle));
+            }
+
+            @Override
+            public void positions(Tessellator.Grid grid, int row, float[] out, int offset) {
+                float y = (float) ((grid.v(row) - 0.5) * height);     //Only depends on the row
+                int columns = grid.getColumns();
+                for (int column = 0; column < columns; column++) {
+                    out[offset++] = (float) (radius * grid.cos(column));
+                    out[offset++] = y;
+                    out[offset++] = (float) (radius * grid.sin(column));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: DiskMeshCache.java
+ * Class Name: Draw.Geometry.DiskMeshCache
+ * Last Modified: 10/18/26, 6:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/*
+ * The DiskMeshCache class keeps generated meshes in a cache directory across runs.
+ * Each mesh is one file in a compact binary format, all little endian:
+ *   header   magic "DSMC", format version, generator version, CRC32, key size, and the
+ *            number of point floats, texture coordinate floats, face ints and smoothing group ints
+ *   key      the shape, its normalized values and its segment counts
+ *   sections the points, texture coordinates, faces and smoothing groups, raw
+ * Files are loaded back through a memory mapping and copied straight into the arrays.
+ * A file whose versions, size, key or checksum do not match is stale or corrupt,
+ * it is deleted and the mesh is generated again.
+ * Only meshes of at least minBytes are stored, small ones are quicker to generate than to read.
+ * Files are written on a background thread. The size of the directory is scanned once, on the first write,
+ * and then kept up to date as files are written and deleted. Only a write that takes it past maxBytes
+ * scans the directory again, to prune it, least recently used first.
+ * A mesh that will be stored is run through the MeshOptimizer first and the optimized mesh is returned,
+ * so the run that writes a file shows the same vertices and faces as every run that loads it.
+ * Meshes loaded from the disk are already welded and ordered for the vertex cache.
+ * All methods are thread safe. The cache is best effort, an IO error only costs a generation.
+ */
+public final class DiskMeshCache {
+    private static final int MAGIC = 0x434D5344;   //"DSMC"
+    private static final int FORMAT_VERSION = 2;    //Layout of the file
+    private static final int HEADER_SIZE = 36;
+    private static final String SUFFIX = ".mesh";
+    /*
+     * The shared cache, off unless the application is started with -Ddraw.diskCache=true, configured with
+     * -Ddraw.diskCache.dir=<directory>, ~/.drawshape/mesh-cache by default,
+     * -Ddraw.diskCache.minBytes=<bytes>, 64KB by default,
+     * -Ddraw.diskCache.maxBytes=<bytes>, 256MB by default
+     */
+    private static final DiskMeshCache SHARED = new DiskMeshCache(
+            Boolean.getBoolean("draw.diskCache")
+                    ? Paths.get(System.getProperty("draw.diskCache.dir",
+                    Paths.get(System.getProperty("user.home"), ".drawshape", "mesh-cache").toString()))
+                    : null,
+            Long.getLong("draw.diskCache.minBytes", 64L * 1024),
+            Long.getLong("draw.diskCache.maxBytes", 256L * 1024 * 1024));
+
+    private final Path directory;   //null when the cache is turned off
+    private final long minBytes;
+    private final long maxBytes;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "mesh-cache-writer");
+        thread.setDaemon(true);     //Pending writes never keep the application alive
+        return thread;
+    });
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();  //Stale or corrupt files
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();  //IO errors
+    private final AtomicLong bytes = new AtomicLong(-1);   //Size of the directory, -1 until it is scanned
+    private volatile Future<?> lastWrite;
+
+    /*
+     * Creates a cache in the directory, a null directory turns the cache off
+     */
+    public DiskMeshCache(Path directory, long minBytes, long maxBytes) {
+        this.directory = directory;
+        this.minBytes = minBytes;
+        this.maxBytes = maxBytes;
+    }
+
+    /*
+     * Returns the cache shared by the whole application
+     */
+    public static DiskMeshCache shared() {
+        return SHARED;
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    /*
+     * Returns the mesh from the disk, or generates it, optimizes it and stores it in the background.
+     * Meshes too small to be stored are returned as generated.
+     */
+    public MeshData getOrCreate(MeshKey key, Supplier<MeshData> generator) {
+        MeshData data = load(key);
+        if (data == null) {
+            data = generator.get();
+            if (isEnabled() && data.getSizeInBytes() >= minBytes) {
+                data = MeshOptimizer.optimize(data).getMesh();  //The same mesh the next runs load
+                MeshData stored = data;
+                lastWrite = writer.submit(() -> {
+                    try {
+                        if (bytes.get() < 0) {
+                            bytes.set(scan());  //Once, before the first write counts
+                        }
+                        store(key, stored);
+                        if (bytes.get() > maxBytes) {
+                            prune();
+                        }
+                    } catch (IOException e) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+        }
+        return data;
+    }
+
+    /*
+     * Loads the mesh of the key, returns null if it is not on the disk or the file is stale or corrupt
+     */
+    public MeshData load(MeshKey key) {
+        if (!isEnabled()) {
+            return null;
+        }
+        Path file = fileFor(key);
+        if (!Files.isRegularFile(file)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        MeshData data;
+        try {
+            data = read(file, key);
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            return null;
+        }
+        if (data == null) {
+            rejected.incrementAndGet();
+            misses.incrementAndGet();
+            try {
+                long size = Files.size(file);
+                if (Files.deleteIfExists(file)) {
+                    count(-size);
+                }
+            } catch (IOException e) {
+                failures.incrementAndGet();     //Still mapped on some platforms, overwritten later
+            }
+            return null;
+        }
+        hits.incrementAndGet();
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));  //Recently used
+        } catch (IOException e) {
+            //Only affects the order of pruning
+        }
+        return data;
+    }
+
+    /*
+     * Writes the mesh of the key to its file.
+     * The file is written under a temporary name and moved into place, readers never see half a file.
+     */
+    public void store(MeshKey key, MeshData data) throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        byte[] encodedKey = encodeKey(key);
+        float[] points = data.getPoints();
+        float[] texCoords = data.getTexCoords();
+        int[] faces = data.getFaces();
+        int[] groups = data.getSmoothingGroups();
+        long size = HEADER_SIZE + encodedKey.length
+                + 4L * (points.length + texCoords.length + faces.length + groups.length);
+        if (size > Integer.MAX_VALUE) {
+            return;     //Too large for a single mapping
+        }
+        Files.createDirectories(directory);
+        Path target = fileFor(key);
+        Path temp = Files.createTempFile(directory, key.getShape(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                map.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(Shapes.GENERATOR_VERSION).putInt(0);
+                map.putInt(encodedKey.length).putInt(points.length).putInt(texCoords.length).putInt(faces.length)
+                        .putInt(groups.length);
+                map.put(encodedKey);
+                map.asFloatBuffer().put(points);
+                map.position(map.position() + 4 * points.length);
+                map.asFloatBuffer().put(texCoords);
+                map.position(map.position() + 4 * texCoords.length);
+                map.asIntBuffer().put(faces);
+                map.position(map.position() + 4 * faces.length);
+                map.asIntBuffer().put(groups);
+                map.putInt(12, checksum(map, (int) size));
+                map.force();
+            }
+            long replaced = Files.isRegularFile(target) ? Files.size(target) : 0;
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writes.incrementAndGet();
+            count(size - replaced);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /*
+     * Reads and checks a cache file, returns null if it does not hold the mesh of the key
+     */
+    private static MeshData read(Path file, MeshKey key) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                return null;
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != FORMAT_VERSION
+                    || map.getInt(8) != Shapes.GENERATOR_VERSION) {
+                return null;    //Another format or an older generator
+            }
+            long keySize = map.getInt(16);
+            long pointCount = map.getInt(20), texCount = map.getInt(24), faceCount = map.getInt(28);
+            long groupCount = map.getInt(32);
+            if (keySize < 0 || pointCount < 0 || texCount < 0 || faceCount < 0 || groupCount < 0
+                    || HEADER_SIZE + keySize + 4 * (pointCount + texCount + faceCount + groupCount) != size) {
+                return null;
+            }
+            if (map.getInt(12) != checksum(map, (int) size)) {
+                return null;    //Corrupt
+            }
+            byte[] expected = encodeKey(key);
+            if (keySize != expected.length
+                    || !map.slice(HEADER_SIZE, expected.length).equals(ByteBuffer.wrap(expected))) {
+                return null;    //Another key with the same file name
+            }
+            int offset = HEADER_SIZE + expected.length;
+            float[] points = new float[(int) pointCount];
+            float[] texCoords = new float[(int) texCount];
+            int[] faces = new int[(int) faceCount];
+            int[] groups = new int[(int) groupCount];
+            map.slice(offset, points.length * 4).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(points);
+            offset += points.length * 4;
+            map.slice(offset, texCoords.length * 4).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(texCoords);
+            offset += texCoords.length * 4;
+            map.slice(offset, faces.length * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(faces);
+            offset += faces.length * 4;
+            map.slice(offset, groups.length * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(groups);
+            if (groups.length != 0 && groups.length != faces.length / 6) {
+                return null;
+            }
+            return new MeshData(points, texCoords, faces, groups);
+        }
+    }
+
+    /*
+     * CRC32 of everything after the header
+     */
+    private static int checksum(ByteBuffer buffer, int size) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(HEADER_SIZE, size - HEADER_SIZE));
+        return (int) crc.getValue();
+    }
+
+    /*
+     * Encodes the shape, values and segments of the key, padded to a multiple of 4 bytes
+     */
+    private static byte[] encodeKey(MeshKey key) {
+        byte[] shape = key.getShape().getBytes(StandardCharsets.UTF_8);
+        double[] values = key.getValues();
+        int[] segments = key.getSegments();
+        int shapeSize = (shape.length + 3) & ~3;
+        ByteBuffer buffer = ByteBuffer.allocate(4 + shapeSize + 4 + 8 * values.length + 4 + 4 * segments.length)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(shape.length).put(shape).position(4 + shapeSize);
+        buffer.putInt(values.length);
+        for (double value : values) {
+            buffer.putDouble(value);
+        }
+        buffer.putInt(segments.length);
+        for (int segment : segments) {
+            buffer.putInt(segment);
+        }
+        return buffer.array();
+    }
+
+    /*
+     * Returns the file of a key, named after the shape and a 64 bit FNV-1a hash of the encoded key
+     */
+    public Path fileFor(MeshKey key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : encodeKey(key)) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        return directory.resolve(key.getShape() + "-" + Long.toHexString(hash) + SUFFIX);
+    }
+
+    /*
+     * Adds the bytes written, or deleted when negative, to the size of the directory once it has been scanned
+     */
+    private void count(long delta) {
+        bytes.getAndUpdate(total -> total < 0 ? total : total + delta);
+    }
+
+    /*
+     * Returns the size of the cache files in the directory
+     */
+    private long scan() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                total += Files.size(file);
+            }
+        }
+        return total;
+    }
+
+    /*
+     * Deletes the least recently used files until the directory fits in maxBytes.
+     * Only called once the counted size is over maxBytes, the scan also corrects the count.
+     */
+    private void prune() throws IOException {
+        List<Path> files = new ArrayList<>();
+        Map<Path, FileTime> used = new HashMap<>();
+        Map<Path, Long> sizes = new HashMap<>();
+        long total = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+                used.put(file, Files.getLastModifiedTime(file));
+                sizes.put(file, Files.size(file));
+                total += sizes.get(file);
+            }
+        }
+        files.sort(Comparator.comparing(used::get));  //Least recently used first
+        for (Path file : files) {
+            if (total <= maxBytes) {
+                break;
+            }
+            if (Files.deleteIfExists(file)) {
+                total -= sizes.get(file);
+            }
+        }
+        bytes.set(total);
+    }
+
+    /*
+     * Waits for the writes submitted so far, used by tools that exit right after generating
+     */
+    public void awaitWrites() throws InterruptedException {
+        Future<?> write = lastWrite;
+        if (write != null) {
+            try {
+                write.get();
+            } catch (ExecutionException e) {
+                failures.incrementAndGet();
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    public long getFailures() {
+        return failures.get();
+    }
+
+    /*
+     * Returns the size of the cache files, -1 until the first write has scanned the directory
+     */
+    public long getSizeInBytes() {
+        return bytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DiskMeshCache[" + (isEnabled() ? directory : "off") + ", hits=" + hits + ", misses=" + misses
+                + ", rejected=" + rejected + ", writes=" + writes + ", failures=" + failures + ", bytes=" + bytes
+                + "]";
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: FlatGenerator.java
+ * Class Name: Draw.Geometry.FlatGenerator
+ * Last Modified: 10/18/26, 4:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The FlatGenerator class builds the 2D shapes as flat meshes in the Z=0 plane.
+ * They are centered on the origin and face the camera (-Z).
+ * Texture coordinates map the bounding square of the shape onto the texture.
+ */
+public final class FlatGenerator {
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private FlatGenerator() {
+    }
+
+    /*
+     * Generates a disk as a fan of triangles around its center
+     */
+    public static MeshData circle(double radius, int segments) {
+        AngleTable angles = AngleTable.of(segments);
+        float[] points = new float[(segments + 1) * 3];   //Ring then center, the center is 0,0,0
+        float[] uv = new float[(segments + 1) * 2];
+        for (int s = 0; s < segments; s++) {
+            points[s * 3] = (float) (radius * angles.cos(s));
+            points[s * 3 + 1] = (float) (radius * angles.sin(s));
+            uv[s * 2] = (float) (0.5 + 0.5 * angles.cos(s));
+            uv[s * 2 + 1] = (float) (0.5 + 0.5 * angles.sin(s));
+        }
+        uv[segments * 2] = 0.5f;
+        uv[segments * 2 + 1] = 0.5f;
+        int[] faces = new int[segments * 6];
+        int f = 0;
+        for (int s = 0; s < segments; s++) {
+            f = MeshData.writeFace(faces, f, segments, (s + 1) % segments, s);
+        }
+        return new MeshData(points, uv, faces);
+    }
+
+    /*
+     * Generates a rectangle, width along X and length along Y like drawRectangle()
+     */
+    public static MeshData rectangle(double width, double length) {
+        float x = (float) (width / 2);
+        float y = (float) (length / 2);
+        float[] points = {
+                -x, -y, 0,
+                x, -y, 0,
+                x, y, 0,
+                -x, y, 0
+        };
+        float[] uv = {
+                0, 0,
+                1, 0,
+                1, 1,
+                0, 1
+        };
+        int[] faces = new int[12];
+        int f = MeshData.writeFace(faces, 0, 0, 3, 2);
+        MeshData.writeFace(faces, f, 0, 2, 1);
+        return new MeshData(points, uv, faces);
+    }
+
+    /*
+     * Generates the right triangle drawn by drawTriangle(), its legs are length long
+     */
+    public static MeshData triangle(double length) {
+        float half = (float) (length / 2);
+        float[] points = {
+                -half, half, 0,
+                half, half, 0,
+                half, -half, 0
+        };
+        float[] uv = {
+                0, 1,
+                1, 1,
+                1, 0
+        };
+        int[] faces = new int[6];
+        MeshData.writeFace(faces, 0, 0, 1, 2);
+        return new MeshData(points, uv, faces);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshBvh.java
+ * Class Name: Draw.Geometry.MeshBvh
+ * Last Modified: 10/18/26, 9:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The MeshBvh class finds the triangle of a mesh hit by a ray, using a Bvh over its triangles.
+ * The arrays have the layout of a TriangleMesh: x, y, z per point and faces of faceStride ints
+ * per triangle whose point indices are at 0, faceStride / 3 and 2 * faceStride / 3.
+ * When the vertices move but the faces stay the same, like a LiveMesh updated in place,
+ * refit() updates the boxes instead of building a new tree.
+ */
+public final class MeshBvh {
+    private float[] points;
+    private final int[] faces;
+    private final int stride;   //Ints per face
+    private final Bvh bvh;
+
+    /*
+     * Builds the tree over every triangle, the arrays are kept and must not be modified afterwards
+     */
+    public MeshBvh(float[] points, int[] faces, int faceStride) {
+        if (faceStride % 3 != 0) {
+            throw new IllegalArgumentException("The face stride must be a multiple of 3: " + faceStride);
+        }
+        this.points = points;
+        this.faces = faces;
+        this.stride = faceStride;
+        bvh = new Bvh(faces.length / faceStride, this::bounds);
+    }
+
+    /*
+     * Builds the tree of a mesh from the geometry package
+     */
+    public MeshBvh(MeshData data) {
+        this(data.getPoints(), data.getFaces(), 6);
+    }
+
+    public int getTriangleCount() {
+        return bvh.getItemCount();
+    }
+
+    public int getPointCount() {
+        return points.length / 3;
+    }
+
+    /*
+     * Takes new vertices for the same faces and refits every box
+     */
+    public void refit(float[] points) {
+        if (points.length != this.points.length) {
+            throw new IllegalArgumentException("Expected " + this.points.length + " coordinates, got "
+                    + points.length);
+        }
+        this.points = points;
+        bvh.invalidateAll();
+        bvh.refit();
+    }
+
+    /*
+     * Returns the closest triangle hit by the ray, -1 if none, and its distance in distance[0].
+     * Both sides of a triangle can be hit. Distances are in units of the direction's length.
+     */
+    public int intersect(double ox, double oy, double oz, double dx, double dy, double dz, double maxDistance,
+                         double[] distance) {
+        return bvh.raycast(ox, oy, oz, dx, dy, dz, maxDistance,
+                (triangle, max) -> triangle(triangle, ox, oy, oz, dx, dy, dz), distance);
+    }
+
+    private void bounds(int triangle, float[] box) {
+        box[0] = box[1] = box[2] = Float.MAX_VALUE;
+        box[3] = box[4] = box[5] = -Float.MAX_VALUE;
+        for (int corner = 0; corner < 3; corner++) {
+            int p = faces[triangle * stride + corner * stride / 3] * 3;
+            for (int axis = 0; axis < 3; axis++) {
+                box[axis] = Math.min(box[axis], points[p + axis]);
+                box[3 + axis] = Math.max(box[3 + axis], points[p + axis]);
+            }
+        }
+    }
+
+    /*
+     * Moller-Trumbore ray/triangle test, returns the distance of the hit or infinity
+     */
+    private double triangle(int triangle, double ox, double oy, double oz, double dx, double dy, double dz) {
+        int f = triangle * stride;
+        int a = faces[f] * 3;
+        int b = faces[f + stride / 3] * 3;
+        int c = faces[f + 2 * stride / 3] * 3;
+        double e1x = points[b] - points[a];
+        double e1y = points[b + 1] - points[a + 1];
+        double e1z = points[b + 2] - points[a + 2];
+        double e2x = points[c] - points[a];
+        double e2y = points[c + 1] - points[a + 1];
+        double e2z = points[c + 2] - points[a + 2];
+        double px = dy * e2z - dz * e2y;
+        double py = dz * e2x - dx * e2z;
+        double pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (Math.abs(det) < 1e-12) {
+            return Double.POSITIVE_INFINITY;    //Parallel to the triangle, or degenerate
+        }
+        double inverse = 1 / det;
+        double sx = ox - points[a], sy = oy - points[a + 1], sz = oz - points[a + 2];
+        double u = (sx * px + sy * py + sz * pz) * inverse;
+        if (u < 0 || u > 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double qx = sy * e1z - sz * e1y;
+        double qy = sz * e1x - sx * e1z;
+        double qz = sx * e1y - sy * e1x;
+        double v = (dx * qx + dy * qy + dz * qz) * inverse;
+        if (v < 0 || u + v > 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double t = (e2x * qx + e2y * qy + e2z * qz) * inverse;
+        return t >= 0 ? t : Double.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshCache.java
+ * Class Name: Draw.Geometry.MeshCache
+ * Last Modified: 10/18/26, 11:20 AM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/*
+ * The MeshCache class keeps recently generated meshes so reopening the same shape
+ * with the same dimensions does not generate the mesh again.
+ * The cache is bounded by a memory budget in bytes, when it is exceeded the least
+ * recently used meshes are evicted first.
+ * Hit, miss and eviction counters are kept so the budget can be sized.
+ * All methods are synchronized, generation itself happens outside of the lock.
+ */
+public class MeshCache {
+    /*
+     * Default budget of the shared cache, 64MB.
+     * Can be changed with -Ddraw.meshCache.maxBytes=<bytes>
+     */
+    private static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final MeshCache SHARED =
+            new MeshCache(Long.getLong("draw.meshCache.maxBytes", DEFAULT_MAX_BYTES));
+
+    private final long maxBytes;    //The memory budget
+    //Access ordered, the first entry is always the least recently used
+    private final LinkedHashMap<MeshKey, MeshData> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes;   //Current size of all cached meshes
+    private long hits, misses, evictions;   //Counters used to size the cache
+
+    /*
+     * Creates a cache that holds at most maxBytes of mesh data
+     */
+    public MeshCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The memory budget can not be negative");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /*
+     * Returns the cache shared by the whole application
+     */
+    public static MeshCache shared() {
+        return SHARED;
+    }
+
+    /*
+     * Returns the cached mesh for the key, or null if there is none.
+     * Counts as a hit or a miss.
+     */
+    public synchronized MeshData get(MeshKey key) {
+        MeshData data = entries.get(key);
+        if (data == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return data;
+    }
+
+    /*
+     * Stores a mesh in the cache and evicts the least recently used meshes
+     * until the cache fits in its budget again.
+     * A mesh larger than the whole budget is not stored.
+     */
+    public synchronized void put(MeshKey key, MeshData data) {
+        long size = data.getSizeInBytes();
+        if (size > maxBytes) {
+            return;
+        }
+        MeshData old = entries.put(key, data);
+        if (old != null) {
+            sizeInBytes -= old.getSizeInBytes();
+        }
+        sizeInBytes += size;
+        Iterator<Map.Entry<MeshKey, MeshData>> it = entries.entrySet().iterator();
+        while (sizeInBytes > maxBytes && it.hasNext()) {
+            Map.Entry<MeshKey, MeshData> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue;   //Never evict what was just added
+            }
+            sizeInBytes -= eldest.getValue().getSizeInBytes();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /*
+     * Returns the cached mesh for the key, generating and storing it on a miss.
+     * The generator runs outside of the lock so other threads are not blocked.
+     */
+    public MeshData getOrCreate(MeshKey key, Supplier<MeshData> generator) {
+        MeshData data = get(key);
+        if (data == null) {
+            data = generator.get();
+            put(key, data);
+        }
+        return data;
+    }
+
+    /*
+     * Removes every mesh, the counters are kept
+     */
+    public synchronized void clear() {
+        entries.clear();
+        sizeInBytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "MeshCache[entries=" + entries.size() + ", bytes=" + sizeInBytes + "/" + maxBytes
+                + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshData.java
+ * Class Name: Draw.Geometry.MeshData
+ * Last Modified: 10/18/26, 9:12 AM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The MeshData class represents the raw buffers of a triangle mesh.
+ * The layout is the same one used by a JavaFX TriangleMesh:
+ * points are x,y,z triples, texture coordinates are u,v pairs and
+ * each face is 6 ints (point index, texture index) for each of the 3 vertices.
+ * Smoothing groups are optional, one bit mask per face like TriangleMesh.getFaceSmoothingGroups().
+ * Faces sharing a bit are shaded smoothly across their common points, group 0 is flat.
+ * Without them every face is smoothed with its neighbours.
+ * Holding the raw arrays lets the generators fill them directly without
+ * creating an object per vertex.
+ */
+public class MeshData {
+    private final float[] points;       //x,y,z for every vertex
+    private final float[] texCoords;    //u,v for every texture coordinate
+    private final int[] faces;          //p0,t0,p1,t1,p2,t2 for every triangle
+    private final int[] smoothingGroups;    //Bit mask for every triangle, or empty
+
+    /*
+     * Creates a new mesh from already filled arrays, without smoothing groups.
+     * The arrays are not copied, the caller should not modify them afterwards.
+     */
+    public MeshData(float[] points, float[] texCoords, int[] faces) {
+        this(points, texCoords, faces, new int[0]);
+    }
+
+    /*
+     * Creates a new mesh with a smoothing group mask per face, or an empty array for none.
+     * The arrays are not copied, the caller should not modify them afterwards.
+     */
+    public MeshData(float[] points, float[] texCoords, int[] faces, int[] smoothingGroups) {
+        if (smoothingGroups.length != 0 && smoothingGroups.length != faces.length / 6) {
+            throw new IllegalArgumentException("Expected " + faces.length / 6 + " smoothing groups, got "
+                    + smoothingGroups.length);
+        }
+        this.points = points;
+        this.texCoords = texCoords;
+        this.faces = faces;
+        this.smoothingGroups = smoothingGroups;
+    }
+
+    public float[] getPoints() {
+        return points;
+    }
+
+    public float[] getTexCoords() {
+        return texCoords;
+    }
+
+    public int[] getFaces() {
+        return faces;
+    }
+
+    /*
+     * Returns the smoothing group mask of every face, empty when every face is smoothed
+     */
+    public int[] getSmoothingGroups() {
+        return smoothingGroups;
+    }
+
+    /*
+     * Returns the number of vertices (points) in the mesh
+     */
+    public int getVertexCount() {
+        return points.length / 3;
+    }
+
+    /*
+     * Returns the number of triangles in the mesh
+     */
+    public int getFaceCount() {
+        return faces.length / 6;
+    }
+
+    /*
+     * Writes 1 triangle whose texture indices are the same as its point indices.
+     * Returns the index after the face, so generators can chain the calls.
+     */
+    public static int writeFace(int[] faces, int i, int p0, int p1, int p2) {
+        return writeFace(faces, i, p0, p0, p1, p1, p2, p2);
+    }
+
+    /*
+     * Writes 1 triangle with separate point and texture indices.
+     * Returns the index after the face, so generators can chain the calls.
+     */
+    public static int writeFace(int[] faces, int i, int p0, int t0, int p1, int t1, int p2, int t2) {
+        faces[i++] = p0;
+        faces[i++] = t0;
+        faces[i++] = p1;
+        faces[i++] = t1;
+        faces[i++] = p2;
+        faces[i++] = t2;
+        return i;
+    }
+
+    /*
+     * Returns the approximate heap size of the mesh buffers in bytes.
+     * Each array carries a 16 byte header on top of its 4 byte elements.
+     */
+    public long getSizeInBytes() {
+        return 64L + 4L * (points.length + texCoords.length + faces.length + smoothingGroups.length);
+    }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshExporter.java
+ * Class Name: Draw.Geometry.MeshExporter
+ * Last Modified: 10/18/26, 6:45 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/*
+ * The MeshExporter class saves a mesh as binary STL or binary glTF (.glb).
+ * The mesh is exported once it has been built, from its MeshData, it is not streamed from the generators.
+ * Files are written through a FileChannel from a small direct ByteBuffer that is reused
+ * for every write, the triangles are encoded and flushed block by block.
+ * The encoded file is never built in memory, so an export only needs the mesh plus the 64KB buffer.
+ */
+public final class MeshExporter {
+    private static final int BUFFER_SIZE = 64 * 1024;  //Bytes encoded before each write
+    //One buffer per thread, reused by every export on that thread
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(
+            () -> ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN));
+    private static final int STL_TRIANGLE_SIZE = 50;    //Normal, 3 vertices and an attribute count
+    private static final int GLB_MAGIC = 0x46546C67;    //"glTF"
+    private static final int GLB_JSON = 0x4E4F534A;     //"JSON"
+    private static final int GLB_BIN = 0x004E4942;      //"BIN\0"
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private MeshExporter() {
+    }
+
+    /*
+     * Writes the mesh as a binary STL file.
+     * The facet normals are computed from the vertices, the texture coordinates are not saved.
+     */
+    public static void writeStl(MeshData mesh, Path file) throws IOException {
+        float[] points = mesh.getPoints();
+        int[] faces = mesh.getFaces();
+        try (FileChannel channel = open(file)) {
+            ByteBuffer buffer = BUFFER.get();
+            buffer.clear();
+            byte[] header = new byte[80];
+            byte[] title = "DrawShape binary STL".getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(title, 0, header, 0, title.length);
+            buffer.put(header);
+            buffer.putInt(mesh.getFaceCount());
+            for (int f = 0; f < faces.length; f += 6) {
+                if (buffer.remaining() < STL_TRIANGLE_SIZE) {
+                    flush(channel, buffer);
+                }
+                int a = faces[f] * 3;
+                int b = faces[f + 2] * 3;
+                int c = faces[f + 4] * 3;
+                //Facet normal, right hand rule
+                float ux = points[b] - points[a];
+                float uy = points[b + 1] - points[a + 1];
+                float uz = points[b + 2] - points[a + 2];
+                float vx = points[c] - points[a];
+                float vy = points[c + 1] - points[a + 1];
+                float vz = points[c + 2] - points[a + 2];
+                float nx = uy * vz - uz * vy, ny = uz * vx - ux * vz, nz = ux * vy - uy * vx;
+                float length = (float) Math.sqrt(nx * nx + ny * ny + nz * nz);
+                if (length > 0) {
+                    nx /= length;
+                    ny /= length;
+                    nz /= length;
+                }
+                buffer.putFloat(nx).putFloat(ny).putFloat(nz);
+                putPoint(buffer, points, a);
+                putPoint(buffer, points, b);
+                putPoint(buffer, points, c);
+                buffer.putShort((short) 0);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /*
+     * Writes the mesh as a binary glTF 2.0 file with a single mesh and node.
+     * glTF is Y up while the viewer is Y down, so Y is flipped and the winding is reversed.
+     * Texture coordinates are only saved when every face uses the same index for its point
+     * and its texture coordinate, glTF has a single index per vertex.
+     * Throws an IllegalArgumentException for a mesh without faces, glTF has no empty accessors
+     * and the bounds of no positions can not be written as JSON.
+     */
+    public static void writeGlb(MeshData mesh, Path file) throws IOException {
+        float[] points = mesh.getPoints();
+        float[] texCoords = mesh.getTexCoords();
+        int[] faces = mesh.getFaces();
+        int vertexCount = mesh.getVertexCount();
+        if (vertexCount == 0 || mesh.getFaceCount() == 0) {
+            throw new IllegalArgumentException("The mesh is empty, there is nothing to export");
+        }
+        boolean withTexCoords = texCoords.length / 2 == vertexCount && sharesIndices(faces);
+
+        //Bounds of the positions, required by glTF
+        float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+        float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (int p = 0; p < points.length; p += 3) {
+            for (int axis = 0; axis < 3; axis++) {
+                float value = axis == 1 ? -points[p + 1] : points[p + axis];
+                min[axis] = Math.min(min[axis], value);
+                max[axis] = Math.max(max[axis], value);
+            }
+        }
+
+        long positionBytes = 12L * vertexCount;
+        long texCoordBytes = withTexCoords ? 8L * vertexCount : 0;
+        long indexBytes = 12L * mesh.getFaceCount();
+        long binLength = positionBytes + texCoordBytes + indexBytes;   //Every section is 4 byte aligned
+        byte[] json = padded(gltfJson(mesh, withTexCoords, min, max, positionBytes, texCoordBytes, indexBytes));
+        long total = 12 + 8 + json.length + 8 + binLength;
+        if (total > 0xFFFFFFFFL) {
+            throw new IOException("The mesh is too large for a single .glb file");
+        }
+
+        try (FileChannel channel = open(file)) {
+            ByteBuffer buffer = BUFFER.get();
+            buffer.clear();
+            buffer.putInt(GLB_MAGIC).putInt(2).putInt((int) total);
+            buffer.putInt(json.length).putInt(GLB_JSON);
+            flush(channel, buffer);
+            channel.write(ByteBuffer.wrap(json));
+            buffer.putInt((int) binLength).putInt(GLB_BIN);
+            for (int p = 0; p < points.length; p += 3) {
+                if (buffer.remaining() < 12) {
+                    flush(channel, buffer);
+                }
+                buffer.putFloat(points[p]).putFloat(-points[p + 1]).putFloat(points[p + 2]);
+            }
+            if (withTexCoords) {
+                for (float value : texCoords) {
+                    if (buffer.remaining() < 4) {
+                        flush(channel, buffer);
+                    }
+                    buffer.putFloat(value);
+                }
+            }
+            for (int f = 0; f < faces.length; f += 6) {
+                if (buffer.remaining() < 12) {
+                    flush(channel, buffer);
+                }
+                //Reversed winding to undo the mirroring of the Y flip
+                buffer.putInt(faces[f]).putInt(faces[f + 4]).putInt(faces[f + 2]);
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    /*
+     * Builds the JSON chunk describing the binary chunk
+     */
+    private static String gltfJson(MeshData mesh, boolean withTexCoords, float[] min, float[] max,
+                                   long positionBytes, long texCoordBytes, long indexBytes) {
+        int vertexCount = mesh.getVertexCount();
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"asset\":{\"version\":\"2.0\",\"generator\":\"DrawShape\"},");
+        json.append("\"scene\":0,\"scenes\":[{\"nodes\":[0]}],\"nodes\":[{\"mesh\":0}],");
+        json.append("\"meshes\":[{\"primitives\":[{\"attributes\":{\"POSITION\":0");
+        if (withTexCoords) {
+            json.append(",\"TEXCOORD_0\":2");
+        }
+        json.append("},\"indices\":1}]}],");
+        json.append("\"buffers\":[{\"byteLength\":").append(positionBytes + texCoordBytes + indexBytes).append("}],");
+        json.append("\"bufferViews\":[");
+        json.append("{\"buffer\":0,\"byteOffset\":0,\"byteLength\":").append(positionBytes)
+                .append(",\"target\":34962},");
+        json.append("{\"buffer\":0,\"byteOffset\":").append(positionBytes + texCoordBytes)
+                .append(",\"byteLength\":").append(indexBytes).append(",\"target\":34963}");
+        if (withTexCoords) {
+            json.append(",{\"buffer\":0,\"byteOffset\":").append(positionBytes)
+                    .append(",\"byteLength\":").append(texCoordBytes).append(",\"target\":34962}");
+        }
+        json.append("],\"accessors\":[");
+        json.append("{\"bufferView\":0,\"componentType\":5126,\"count\":").append(vertexCount)
+                .append(",\"type\":\"VEC3\",\"min\":").append(vector(min)).append(",\"max\":")
+                .append(vector(max)).append("},");
+        json.append("{\"bufferView\":1,\"componentType\":5125,\"count\":").append(mesh.getFaceCount() * 3L)
+                .append(",\"type\":\"SCALAR\"}");
+        if (withTexCoords) {
+            json.append(",{\"bufferView\":2,\"componentType\":5126,\"count\":").append(vertexCount)
+                    .append(",\"type\":\"VEC2\"}");
+        }
+        json.append("]}");
+        return json.toString();
+    }
+
+    /*
+     * Formats a 3 component vector as a JSON array
+     */
+    private static String vector(float[] v) {
+        return String.format(Locale.ROOT, "[%s,%s,%s]", v[0], v[1], v[2]);
+    }
+
+    /*
+     * Encodes the JSON and pads it with spaces to a multiple of 4 bytes, as glTF requires
+     */
+    private static byte[] padded(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        int length = (bytes.length + 3) & ~3;
+        byte[] result = new byte[length];
+        System.arraycopy(bytes, 0, result, 0, bytes.length);
+        for (int i = bytes.length; i < length; i++) {
+            result[i] = ' ';
+        }
+        return result;
+    }
+
+    /*
+     * Returns true if every face uses the same index for its points and texture coordinates
+     */
+    private static boolean sharesIndices(int[] faces) {
+        for (int f = 0; f < faces.length; f += 2) {
+            if (faces[f] != faces[f + 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Opens the file for writing, replacing any existing content
+     */
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /*
+     * Writes the x,y,z of the point starting at index p
+     */
+    private static void putPoint(ByteBuffer buffer, float[] points, int p) {
+        buffer.putFloat(points[p]).putFloat(points[p + 1]).putFloat(points[p + 2]);
+    }
+
+    /*
+     * Writes everything encoded so far and empties the buffer for reuse
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshImporter.java
+ * Class Name: Draw.Geometry.MeshImporter
+ * Last Modified: 10/18/26, 5:30 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/*
+ * The MeshImporter class loads binary STL and OBJ files into a MeshData.
+ * Files are memory mapped and parsed straight from the MappedByteBuffer into primitive arrays,
+ * no String or object is created per line, vertex or triangle.
+ * Files larger than a single mapping are mapped window by window.
+ * The coordinates are kept as they are in the file, like MeshExporter writes them.
+ */
+public final class MeshImporter {
+    private static final int MAP_SIZE = 1 << 30;   //Largest window mapped at once
+    private static final int MAX_ARRAY = Integer.MAX_VALUE - 8;    //Largest array the JVM allows
+    private static final int STL_HEADER_SIZE = 84;  //80 byte header and the triangle count
+    private static final int STL_TRIANGLE_SIZE = 50;    //Normal, 3 vertices and an attribute count
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private MeshImporter() {
+    }
+
+    /*
+     * Reads a binary STL or OBJ file, picked from the file extension
+     */
+    public static MeshData read(Path file) throws IOException {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".stl")) {
+            return readStl(file);
+        } else if (name.endsWith(".obj")) {
+            return readObj(file);
+        }
+        throw new IOException("Unsupported mesh file, expected .stl or .obj: " + file);
+    }
+
+    /*
+     * Reads a binary STL file.
+     * Every triangle gets its own 3 vertices, STL does not share them. The facet normals are ignored,
+     * every triangle is in smoothing group 0 so it is shaded flat, like its facet, even once welded.
+     * Large files are decoded in parallel, every triangle is independent.
+     * ASCII STL files are rejected.
+     */
+    public static MeshData readStl(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < STL_HEADER_SIZE) {
+                throw new IOException("Not a binary STL file: " + file);
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, STL_HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            long count = header.getInt(80) & 0xFFFFFFFFL;
+            if (STL_HEADER_SIZE + count * STL_TRIANGLE_SIZE != size) {
+                throw new IOException("Not a binary STL file, ASCII STL is not supported: " + file);
+            }
+            if (count * 9 > MAX_ARRAY) {
+                throw new IOException("Too many triangles for a single mesh: " + count);
+            }
+            int triangles = (int) count;
+            float[] points = new float[triangles * 9];
+            int[] faces = new int[triangles * 6];
+            int perWindow = MAP_SIZE / STL_TRIANGLE_SIZE;
+            for (int first = 0; first < triangles; first += perWindow) {
+                int n = Math.min(perWindow, triangles - first);
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY,
+                        STL_HEADER_SIZE + (long) first * STL_TRIANGLE_SIZE, (long) n * STL_TRIANGLE_SIZE);
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                int base = first;
+                //Absolute reads only, the buffer can be shared by the tasks
+                ParallelRows.run(n, 3, ParallelRows.worthIt(n * 3L), (from, to) -> {
+                    for (int t = from; t < to; t++) {
+                        int src = t * STL_TRIANGLE_SIZE + 12;   //Skips the normal
+                        int dst = (base + t) * 9;
+                        for (int k = 0; k < 9; k++) {
+                            points[dst + k] = map.getFloat(src + k * 4);
+                        }
+                        int v = (base + t) * 3;
+                        MeshData.writeFace(faces, (base + t) * 6, v, 0, v + 1, 0, v + 2, 0);
+                    }
+                });
+            }
+            return new MeshData(points, new float[]{0, 0}, faces, new int[triangles]);
+        }
+    }
+
+    /*
+     * Reads the geometry of an OBJ file, v, vt, f and s lines. Everything else is skipped.
+     * Polygons are split into triangle fans, negative (relative) indices are supported.
+     * Smoothing group n of an s line becomes bit (n - 1) % 32 of the faces that follow it.
+     * Faces before any s line, or after s off, are in group 0 and drawn flat, like the OBJ default
+     * and the triangles of an STL file. The MeshOptimizer can then weld their duplicate points.
+     * The V of the texture coordinates is flipped, OBJ has V going up and JavaFX going down.
+     * Faces without texture coordinates use texture coordinate 0, which is always (0, 0).
+     */
+    public static MeshData readObj(Path file) throws IOException {
+        ObjParser parser = new ObjParser(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(MAP_SIZE, size - position);
+                MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = length;
+                if (position + length < size) {
+                    //Stops after the last full line, the rest is mapped again with the next window
+                    while (end > 0 && map.get(end - 1) != '\n') {
+                        end--;
+                    }
+                    if (end == 0) {
+                        throw new IOException("Line too long in " + file);
+                    }
+                }
+                parser.parse(map, end);
+                position += end;
+            }
+        }
+        return parser.toMeshData();
+    }
+
+    /*
+     * Parses the lines of an OBJ file, keeps the arrays between the mapped windows
+     */
+    private static final class ObjParser {
+        private static final double[] POWERS = new double[23];  //Exact powers of ten
+
+        static {
+            POWERS[0] = 1;
+            for (int i = 1; i < POWERS.length; i++) {
+                POWERS[i] = POWERS[i - 1] * 10;
+            }
+        }
+
+        private final Path file;
+        private final FloatArray points = new FloatArray();
+        private final FloatArray texCoords = new FloatArray();
+        private final IntArray faces = new IntArray();
+        private final IntArray groups = new IntArray();    //Smoothing group of every triangle
+        private int group;  //Smoothing group of the faces that follow, 0 is off
+        private MappedByteBuffer buffer;
+        private int pos;    //Current byte in the buffer
+        private int end;    //End of the full lines of the buffer
+        private long line;  //Line number for error messages
+
+        private ObjParser(Path file) {
+            this.file = file;
+            texCoords.size = 2;     //Texture coordinate 0 is (0, 0), for faces without any
+        }
+
+        /*
+         * Parses every line of the buffer up to end
+         */
+        private void parse(MappedByteBuffer buffer, int end) throws IOException {
+            this.buffer = buffer;
+            this.end = end;
+            pos = 0;
+            while (pos < end) {
+                line++;
+                skipSpaces();
+                if (pos + 1 < end && buffer.get(pos) == 'v' && buffer.get(pos + 1) == ' ') {
+                    pos += 2;
+                    points.add(number());
+                    points.add(number());
+                    points.add(number());
+                } else if (pos + 2 < end && buffer.get(pos) == 'v' && buffer.get(pos + 1) == 't'
+                        && buffer.get(pos + 2) == ' ') {
+                    pos += 3;
+                    texCoords.add(number());
+                    texCoords.add(1 - number());
+                } else if (pos + 1 < end && buffer.get(pos) == 'f' && buffer.get(pos + 1) == ' ') {
+                    pos += 2;
+                    face();
+                } else if (pos + 1 < end && buffer.get(pos) == 's' && buffer.get(pos + 1) == ' ') {
+                    pos += 2;
+                    smoothingGroup();
+                }
+                skipLine();
+            }
+        }
+
+        /*
+         * Parses the corners of a face and writes it as a fan of triangles
+         */
+        private void face() throws IOException {
+            int firstPoint = 0, firstTex = 0, lastPoint = 0, lastTex = 0;
+            int corners = 0;
+            while (true) {
+                skipSpaces();
+                if (pos >= end || isLineEnd(buffer.get(pos))) {
+                    break;
+                }
+                int point = resolve(index(), points.size / 3);
+                int tex = 0;
+                if (pos < end && buffer.get(pos) == '/') {
+                    pos++;
+                    if (pos < end && buffer.get(pos) != '/') {
+                        tex = resolve(index(), texCoords.size / 2 - 1) + 1;    //0 is the default
+                    }
+                    if (pos < end && buffer.get(pos) == '/') {
+                        pos++;
+                        index();    //The normal is not used
+                    }
+                }
+                if (corners == 0) {
+                    firstPoint = point;
+                    firstTex = tex;
+                } else if (corners >= 2) {
+                    faces.add(firstPoint);
+                    faces.add(firstTex);
+                    faces.add(lastPoint);
+                    faces.add(lastTex);
+                    faces.add(point);
+                    faces.add(tex);
+                    groups.add(group);
+                }
+                lastPoint = point;
+                lastTex = tex;
+                corners++;
+            }
+            if (corners < 3) {
+                throw error("A face needs at least 3 vertices");
+            }
+        }
+
+        /*
+         * Parses the group of an s line, off or a number
+         */
+        private void smoothingGroup() throws IOException {
+            skipSpaces();
+            if (pos + 2 < end && buffer.get(pos) == 'o' && buffer.get(pos + 1) == 'f' && buffer.get(pos + 2) == 'f') {
+                group = 0;
+                return;
+            }
+            int n = index();
+            if (n < 0) {
+                throw error("Invalid smoothing group " + n);
+            }
+            group = n == 0 ? 0 : 1 << ((n - 1) % 32);
+        }
+
+        /*
+         * Turns a 1 based or negative OBJ index into a 0 based one
+         */
+        private int resolve(int index, int count) throws IOException {
+            if (index > 0) {
+                return index - 1;
+            } else if (index < 0 && count + index >= 0) {
+                return count + index;
+            }
+            throw error("Invalid index " + index);
+        }
+
+        /*
+         * Parses an integer
+         */
+        private int index() throws IOException {
+            boolean negative = pos < end && buffer.get(pos) == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int start = pos;
+            while (pos < end && isDigit(buffer.get(pos)) && value <= Integer.MAX_VALUE) {
+                value = value * 10 + (buffer.get(pos++) - '0');
+            }
+            if (pos == start || value > Integer.MAX_VALUE) {
+                throw error("Expected an index");
+            }
+            return (int) (negative ? -value : value);
+        }
+
+        /*
+         * Parses a decimal number, with an optional exponent, to float precision
+         * The first 18 significant digits are kept, that is more than a float can hold
+         */
+        private float number() throws IOException {
+            skipSpaces();
+            boolean negative = false;
+            if (pos < end && (buffer.get(pos) == '-' || buffer.get(pos) == '+')) {
+                negative = buffer.get(pos++) == '-';
+            }
+            long mantissa = 0;
+            int exponent = 0;
+            int digits = 0;     //Significant digits in the mantissa
+            boolean any = false;
+            boolean fraction = false;
+            while (pos < end) {
+                byte c = buffer.get(pos);
+                if (isDigit(c)) {
+                    any = true;
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        if (mantissa != 0) {
+                            digits++;
+                        }
+                        if (fraction) {
+                            exponent--;
+                        }
+                    } else if (!fraction) {
+                        exponent++;     //Dropped digit before the point
+                    }
+                } else if (c == '.' && !fraction) {
+                    fraction = true;
+                } else {
+                    break;
+                }
+                pos++;
+            }
+            if (!any) {
+                throw error("Expected a number");
+            }
+            if (pos < end && (buffer.get(pos) == 'e' || buffer.get(pos) == 'E')) {
+                pos++;
+                if (pos < end && buffer.get(pos) == '+') {
+                    pos++;
+                }
+                exponent += index();
+            }
+            double value = mantissa;
+            if (exponent > 0) {
+                value *= exponent < POWERS.length ? POWERS[exponent] : Math.pow(10, exponent);
+            } else if (exponent < 0) {
+                value /= -exponent < POWERS.length ? POWERS[-exponent] : Math.pow(10, -exponent);
+            }
+            return (float) (negative ? -value : value);
+        }
+
+        private void skipSpaces() {
+            while (pos < end && (buffer.get(pos) == ' ' || buffer.get(pos) == '\t')) {
+                pos++;
+            }
+        }
+
+        /*
+         * Moves past the end of the current line
+         */
+        private void skipLine() {
+            while (pos < end && buffer.get(pos) != '\n') {
+                pos++;
+            }
+            pos++;
+        }
+
+        private static boolean isDigit(byte c) {
+            return c >= '0' && c <= '9';
+        }
+
+        private static boolean isLineEnd(byte c) {
+            return c == '\n' || c == '\r' || c == '#';
+        }
+
+        private IOException error(String message) {
+            return new IOException(message + " on line " + line + " of " + file);
+        }
+
+        /*
+         * Checks the indices and returns the mesh, the arrays are trimmed to size
+         */
+        private MeshData toMeshData() throws IOException {
+            int pointCount = points.size / 3;
+            int texCount = texCoords.size / 2;
+            for (int f = 0; f < faces.size; f += 2) {
+                if (faces.data[f] >= pointCount || faces.data[f + 1] >= texCount) {
+                    throw new IOException("A face refers to a vertex that is not in " + file);
+                }
+            }
+            return new MeshData(points.toArray(), texCoords.toArray(), faces.toArray(), groups.toArray());
+        }
+    }
+
+    /*
+     * Growable float array, avoids boxing every coordinate
+     */
+    private static final class FloatArray {
+        private float[] data = new float[1024];
+        private int size;
+
+        private void add(float value) throws IOException {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, grow(size));
+            }
+            data[size++] = value;
+        }
+
+        private float[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /*
+     * Growable int array, avoids boxing every index
+     */
+    private static final class IntArray {
+        private int[] data = new int[1024];
+        private int size;
+
+        private void add(int value) throws IOException {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, grow(size));
+            }
+            data[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+
+    /*
+     * Returns the next capacity of a growable array, 1.5 times larger
+     */
+    private static int grow(int size) throws IOException {
+        if (size == MAX_ARRAY) {
+            throw new IOException("The mesh is too large for a single array");
+        }
+        return (int) Math.min(MAX_ARRAY, size + (size >> 1) + 1L);
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshKey.java
+ * Class Name: Draw.Geometry.MeshKey
+ * Last Modified: 10/18/26, 11:20 AM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.util.Arrays;
+
+/*
+ * The MeshKey class identifies a generated mesh.
+ * It is made of the shape choice, the normalized dimensions the mesh depends on
+ * and the segment counts used for the tessellation.
+ * Two keys are equal when all of those are equal, so it can be used as a map key.
+ */
+public final class MeshKey {
+    private final String shape;     //The users choice, ex: torus
+    private final double[] values;  //The normalized dimensions, ex: major and minor radius
+    private final int[] segments;   //The tessellation, ex: ring and tube segments
+    private final int hash;         //Cached since keys are looked up far more than created
+
+    /*
+     * Creates a new key, the arrays are copied so the key can not change afterwards
+     */
+    public MeshKey(String shape, double[] values, int[] segments) {
+        this.shape = shape;
+        this.values = values.clone();
+        this.segments = segments.clone();
+        hash = 31 * (31 * shape.hashCode() + Arrays.hashCode(this.values)) + Arrays.hashCode(this.segments);
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    /*
+     * Returns a copy of the dimensions
+     */
+    public double[] getValues() {
+        return values.clone();
+    }
+
+    /*
+     * Returns a copy of the segment counts
+     */
+    public int[] getSegments() {
+        return segments.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MeshKey)) {
+            return false;
+        }
+        MeshKey other = (MeshKey) o;
+        return hash == other.hash
+                && shape.equals(other.shape)
+                && Arrays.equals(values, other.values)
+                && Arrays.equals(segments, other.segments);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return shape + Arrays.toString(values) + Arrays.toString(segments);
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshOptimizer.java
+ * Class Name: Draw.Geometry.MeshOptimizer
+ * Last Modified: 10/18/26, 6:40 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/*
+ * The MeshOptimizer class removes redundant vertices from a mesh and reorders its triangles
+ * so the GPU transforms fewer vertices per frame.
+ *   Welding  points closer than a tolerance (a millionth of the mesh size) become one point,
+ *            equal texture coordinates become one texture coordinate.
+ *            Points and texture coordinates have their own indices in a TriangleMesh,
+ *            so the torus seam can be welded even though its texture coordinates differ.
+ *            Only points whose faces would be shaded the same afterwards are welded: the smoothing
+ *            group masks of their faces must be equal (one smooth surface, like a seam) or disjoint
+ *            (a hard edge stays hard). A mesh without smoothing groups smooths every face, so its
+ *            points are not welded at all, duplicated points there are hard edges.
+ *            Triangles that collapse are dropped.
+ *   Ordering the triangles are reordered for the post-transform vertex cache with Tipsify
+ *            (Sander, Nehab and Barczak, 2007), then the points and texture coordinates are
+ *            renumbered in order of first use so they are also fetched in order.
+ * The average cache miss ratio (ACMR, transformed vertices per triangle) is measured with a
+ * FIFO cache of CACHE_SIZE entries before and after, see Result.
+ */
+public final class MeshOptimizer {
+    /*
+     * Size of the vertex cache the triangles are ordered for and the ACMR is measured with
+     */
+    public static final int CACHE_SIZE = 16;
+    private static final double WELD_TOLERANCE = 1e-6;  //Relative to the largest side of the bounding box
+
+    /*
+     * The optimized mesh along with the numbers before and after
+     */
+    public static final class Result {
+        private final MeshData mesh;
+        private final int verticesBefore, verticesAfter;
+        private final int trianglesBefore, trianglesAfter;
+        private final double acmrBefore, acmrAfter;
+
+        private Result(MeshData mesh, int verticesBefore, int trianglesBefore, double acmrBefore) {
+            this.mesh = mesh;
+            this.verticesBefore = verticesBefore;
+            this.trianglesBefore = trianglesBefore;
+            this.acmrBefore = acmrBefore;
+            this.verticesAfter = mesh.getVertexCount();
+            this.trianglesAfter = mesh.getFaceCount();
+            this.acmrAfter = acmr(mesh.getFaces(), CACHE_SIZE);
+        }
+
+        public MeshData getMesh() {
+            return mesh;
+        }
+
+        public int getVerticesBefore() {
+            return verticesBefore;
+        }
+
+        public int getVerticesAfter() {
+            return verticesAfter;
+        }
+
+        public int getTrianglesBefore() {
+            return trianglesBefore;
+        }
+
+        public int getTrianglesAfter() {
+            return trianglesAfter;
+        }
+
+        public double getAcmrBefore() {
+            return acmrBefore;
+        }
+
+        public double getAcmrAfter() {
+            return acmrAfter;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "vertices %d -> %d, triangles %d -> %d, ACMR %.3f -> %.3f",
+                    verticesBefore, verticesAfter, trianglesBefore, trianglesAfter, acmrBefore, acmrAfter);
+        }
+    }
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private MeshOptimizer() {
+    }
+
+    /*
+     * Welds and reorders the mesh, the input is not modified
+     */
+    public static Result optimize(MeshData mesh) {
+        int[] faces = mesh.getFaces();
+        double before = acmr(faces, CACHE_SIZE);
+        float[] points = mesh.getPoints();
+        float[] texCoords = mesh.getTexCoords();
+
+        int[] groups = mesh.getSmoothingGroups();
+        int[] pointMap = new int[points.length / 3];
+        float[] welded;
+        if (groups.length > 0) {
+            welded = weld(points, 3, tolerance(points), masks(faces, groups, pointMap.length), pointMap);
+        } else {
+            welded = points;
+            Arrays.setAll(pointMap, p -> p);
+        }
+        int[] texMap = new int[texCoords.length / 2];
+        float[] weldedTex = weld(texCoords, 2, 0, null, texMap);
+        int[] remapped = new int[faces.length];
+        int[] remappedGroups = new int[groups.length];
+        int size = 0;
+        for (int f = 0; f < faces.length; f += 6) {
+            int p0 = pointMap[faces[f]], p1 = pointMap[faces[f + 2]], p2 = pointMap[faces[f + 4]];
+            if (p0 == p1 || p1 == p2 || p2 == p0) {
+                continue;   //Collapsed by the welding
+            }
+            if (groups.length > 0) {
+                remappedGroups[size / 6] = groups[f / 6];
+            }
+            size = MeshData.writeFace(remapped, size, p0, texMap[faces[f + 1]], p1, texMap[faces[f + 3]],
+                    p2, texMap[faces[f + 5]]);
+        }
+        remapped = Arrays.copyOf(remapped, size);
+        int[] sequence = tipsify(remapped, welded.length / 3, CACHE_SIZE);
+        int[] ordered = new int[size];
+        int[] orderedGroups = new int[groups.length > 0 ? sequence.length : 0];
+        for (int i = 0; i < sequence.length; i++) {
+            System.arraycopy(remapped, sequence[i] * 6, ordered, i * 6, 6);
+            if (orderedGroups.length > 0) {
+                orderedGroups[i] = remappedGroups[sequence[i]];
+            }
+        }
+        MeshData result = renumber(welded, weldedTex, ordered, orderedGroups);
+        return new Result(result, mesh.getVertexCount(), mesh.getFaceCount(), before);
+    }
+
+    /*
+     * Average number of vertices transformed per triangle with a FIFO cache of the given size.
+     * 3 is the worst case, about 0.5 is the best a regular grid can reach.
+     */
+    public static double acmr(int[] faces, int cacheSize) {
+        int triangles = faces.length / 6;
+        if (triangles == 0) {
+            return 0;
+        }
+        int maxPoint = 0;
+        for (int f = 0; f < faces.length; f += 2) {
+            maxPoint = Math.max(maxPoint, faces[f]);
+        }
+        //A vertex is in the FIFO cache if fewer than cacheSize misses happened since it was loaded
+        long[] loadedAt = new long[maxPoint + 1];
+        Arrays.fill(loadedAt, Long.MIN_VALUE / 2);
+        long misses = 0;
+        for (int f = 0; f < faces.length; f += 2) {
+            int p = faces[f];
+            if (misses - loadedAt[p] >= cacheSize) {
+                loadedAt[p] = misses++;
+            }
+        }
+        return (double) misses / triangles;
+    }
+
+    /*
+     * Returns the weld tolerance of the points, relative to the size of their bounding box
+     */
+    private static float tolerance(float[] points) {
+        float extent = 0;
+        for (int axis = 0; axis < 3; axis++) {
+            float min = Float.MAX_VALUE, max = -Float.MAX_VALUE;
+            for (int p = axis; p < points.length; p += 3) {
+                min = Math.min(min, points[p]);
+                max = Math.max(max, points[p]);
+            }
+            extent = Math.max(extent, max - min);
+        }
+        return (float) (extent * WELD_TOLERANCE);
+    }
+
+    /*
+     * Returns the union of the smoothing groups of the faces using each point
+     */
+    private static int[] masks(int[] faces, int[] groups, int pointCount) {
+        int[] masks = new int[pointCount];
+        for (int f = 0; f < faces.length; f += 2) {
+            masks[faces[f]] |= groups[f / 6];
+        }
+        return masks;
+    }
+
+    /*
+     * Merges the tuples (points or texture coordinates) closer than tolerance on every axis.
+     * With masks, two tuples are only merged when their masks are equal or disjoint.
+     * The tuples are hashed into a grid of cells of the size of the tolerance,
+     * a tuple is compared with the tuples in its cell and the neighbouring cells.
+     * Writes the new index of every tuple in map and returns the merged tuples.
+     */
+    private static float[] weld(float[] values, int dimensions, float tolerance, int[] masks, int[] map) {
+        int count = values.length / dimensions;
+        float[] out = new float[values.length];
+        int[] outMasks = masks == null ? null : new int[count];  //Union of the masks merged into a tuple
+        int[] next = new int[count];    //Chains of tuples in the same cell
+        CellTable cells = new CellTable(count);
+        double inverse = tolerance > 0 ? 1 / (double) tolerance : 0;
+        int neighbours = tolerance > 0 ? 1 : 0; //An exact weld only needs the cell itself
+        int size = 0;
+        long[] cell = new long[3];
+        for (int v = 0; v < count; v++) {
+            int base = v * dimensions;
+            for (int axis = 0; axis < dimensions; axis++) {
+                float value = values[base + axis] + 0.0f;   //Turns -0.0 into 0.0
+                cell[axis] = tolerance > 0 ? (long) Math.floor(value * inverse) : Float.floatToIntBits(value);
+            }
+            int found = -1;
+            search:
+            for (int dx = -neighbours; dx <= neighbours; dx++) {
+                for (int dy = -neighbours; dy <= neighbours; dy++) {
+                    for (int dz = dimensions == 3 ? -neighbours : 0; dz <= (dimensions == 3 ? neighbours : 0); dz++) {
+                        long key = cellKey(cell[0] + dx, cell[1] + dy, dimensions == 3 ? cell[2] + dz : 0);
+                        for (int u = cells.get(key); u >= 0; u = next[u]) {
+                            if (close(values, base, out, u * dimensions, dimensions, tolerance)
+                                    && (masks == null || masks[v] == outMasks[u] || (masks[v] & outMasks[u]) == 0)) {
+                                found = u;
+                                break search;
+                            }
+                        }
+                    }
+                }
+            }
+            if (found < 0) {
+                found = size++;
+                System.arraycopy(values, base, out, found * dimensions, dimensions);
+                long key = cellKey(cell[0], cell[1], dimensions == 3 ? cell[2] : 0);
+                next[found] = cells.get(key);
+                cells.put(key, found);
+            }
+            if (masks != null) {
+                outMasks[found] |= masks[v];
+            }
+            map[v] = found;
+        }
+        return Arrays.copyOf(out, size * dimensions);
+    }
+
+    /*
+     * Packs the coordinates of a cell into a key, collisions only cost an extra comparison
+     */
+    private static long cellKey(long x, long y, long z) {
+        return (x & 0x1FFFFF) | (y & 0x1FFFFF) << 21 | (z & 0x1FFFFF) << 42;
+    }
+
+    private static boolean close(float[] a, int i, float[] b, int j, int dimensions, float tolerance) {
+        for (int axis = 0; axis < dimensions; axis++) {
+            if (Math.abs(a[i + axis] - b[j + axis]) > tolerance) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Orders the triangles for a vertex cache of the given size with Tipsify.
+     * Fans around one vertex at a time, the next vertex is the one already in the cache
+     * that stays there the longest, or a dead end vertex when none qualifies.
+     * Only the point indices are used, the texture coordinates follow their triangle.
+     * Returns the triangles in their new order.
+     */
+    private static int[] tipsify(int[] faces, int vertexCount, int cacheSize) {
+        int triangles = faces.length / 6;
+        //Triangles of every vertex, as offsets into one array
+        int[] offsets = new int[vertexCount + 1];
+        for (int f = 0; f < faces.length; f += 2) {
+            offsets[faces[f] + 1]++;
+        }
+        int maxValence = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            maxValence = Math.max(maxValence, offsets[v + 1]);
+            offsets[v + 1] += offsets[v];
+        }
+        int[] adjacency = new int[triangles * 3];
+        int[] fill = Arrays.copyOf(offsets, vertexCount);
+        for (int t = 0; t < triangles; t++) {
+            for (int c = 0; c < 3; c++) {
+                adjacency[fill[faces[t * 6 + c * 2]]++] = t;
+            }
+        }
+        int[] live = new int[vertexCount];  //Triangles of the vertex not emitted yet
+        for (int v = 0; v < vertexCount; v++) {
+            live[v] = offsets[v + 1] - offsets[v];
+        }
+        int[] cachedAt = new int[vertexCount];  //Time the vertex entered the cache
+        boolean[] emitted = new boolean[triangles];
+        int[] deadEnds = new int[triangles * 3];
+        int deadEndCount = 0;
+        int[] candidates = new int[maxValence * 3];
+        int[] order = new int[triangles];
+        int size = 0;
+        int time = cacheSize + 1;   //Every vertex starts out of the cache
+        int cursor = 0;     //Next vertex to look at when the dead ends run out
+        int fan = triangles > 0 ? 0 : -1;
+        while (fan >= 0) {
+            int candidateCount = 0;
+            for (int a = offsets[fan]; a < offsets[fan + 1]; a++) {
+                int t = adjacency[a];
+                if (emitted[t]) {
+                    continue;
+                }
+                emitted[t] = true;
+                order[size++] = t;
+                for (int c = 0; c < 3; c++) {
+                    int v = faces[t * 6 + c * 2];
+                    deadEnds[deadEndCount++] = v;
+                    candidates[candidateCount++] = v;
+                    live[v]--;
+                    if (time - cachedAt[v] > cacheSize) {
+                        cachedAt[v] = time++;   //Missed, loaded into the cache
+                    }
+                }
+            }
+            //The candidate that will still be in the cache after its remaining triangles are emitted
+            fan = -1;
+            int best = -1;
+            for (int i = 0; i < candidateCount; i++) {
+                int v = candidates[i];
+                if (live[v] > 0) {
+                    int priority = time - cachedAt[v] + 2 * live[v] <= cacheSize ? time - cachedAt[v] : 0;
+                    if (priority > best) {
+                        best = priority;
+                        fan = v;
+                    }
+                }
+            }
+            if (fan < 0) {
+                //Dead end, the most recent vertex with triangles left, else the next one in order
+                while (deadEndCount > 0 && fan < 0) {
+                    int v = deadEnds[--deadEndCount];
+                    if (live[v] > 0) {
+                        fan = v;
+                    }
+                }
+                while (fan < 0 && cursor < vertexCount) {
+                    if (live[cursor] > 0) {
+                        fan = cursor;
+                    }
+                    cursor++;
+                }
+            }
+        }
+        return order;
+    }
+
+    /*
+     * Renumbers the points and texture coordinates in the order the faces first use them.
+     * Unused ones are dropped, the smoothing groups are kept as they are.
+     */
+    private static MeshData renumber(float[] points, float[] texCoords, int[] faces, int[] groups) {
+        int[] pointIndex = new int[points.length / 3];
+        int[] texIndex = new int[texCoords.length / 2];
+        Arrays.fill(pointIndex, -1);
+        Arrays.fill(texIndex, -1);
+        float[] newPoints = new float[points.length];
+        float[] newTexCoords = new float[texCoords.length];
+        int pointCount = 0, texCount = 0;
+        int[] newFaces = new int[faces.length];
+        for (int f = 0; f < faces.length; f += 2) {
+            int p = faces[f];
+            if (pointIndex[p] < 0) {
+                System.arraycopy(points, p * 3, newPoints, pointCount * 3, 3);
+                pointIndex[p] = pointCount++;
+            }
+            int t = faces[f + 1];
+            if (texIndex[t] < 0) {
+                System.arraycopy(texCoords, t * 2, newTexCoords, texCount * 2, 2);
+                texIndex[t] = texCount++;
+            }
+            newFaces[f] = pointIndex[p];
+            newFaces[f + 1] = texIndex[t];
+        }
+        return new MeshData(Arrays.copyOf(newPoints, pointCount * 3), Arrays.copyOf(newTexCoords, texCount * 2),
+                newFaces, groups);
+    }
+
+    /*
+     * Open addressing hash table from a cell key to the last tuple added to the cell
+     */
+    private static final class CellTable {
+        private final long[] keys;
+        private final int[] values;
+        private final int mask;
+
+        private CellTable(int expected) {
+            //At most half full, the JVM limits arrays to 2^30 longs here
+            int capacity = (int) Math.min(1 << 30, Long.highestOneBit(Math.max(expected, 8) * 2L - 1) * 2);
+            keys = new long[capacity];
+            values = new int[capacity];
+            Arrays.fill(values, -1);
+            mask = capacity - 1;
+        }
+
+        /*
+         * Returns the tuple stored for the key, -1 if there is none
+         */
+        private int get(long key) {
+            for (int i = slot(key); ; i = (i + 1) & mask) {
+                if (values[i] < 0) {
+                    return -1;
+                }
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+        }
+
+        private void put(long key, int value) {
+            int i = slot(key);
+            while (values[i] >= 0 && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 40) & mask;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: ParallelRows.java
+ * Class Name: Draw.Geometry.ParallelRows
+ * Last Modified: 10/18/26, 8:10 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/*
+ * The ParallelRows class runs a loop over independent rows, either serially or
+ * split into blocks of rows on the common ForkJoinPool.
+ * Each row must only write its own part of the output arrays, so the result is
+ * the same whichever way the rows are run.
+ * Before every block of rows the calling thread is checked for an interrupt, so a cancelled
+ * MeshLoader job stops with a CancellationException instead of finishing a mesh nobody will show.
+ */
+final class ParallelRows {
+    /*
+     * Number of output elements (vertices, faces) below which a mesh is generated serially.
+     * Under this size the cost of forking is larger than the gain.
+     */
+    static final int PARALLEL_THRESHOLD = 64 * 1024;
+    /*
+     * Approximate number of output elements handled by a single task
+     */
+    private static final int GRAIN = 8 * 1024;
+
+    /*
+     * The work done for a block of rows, from inclusive, to exclusive
+     */
+    interface Body {
+        void run(int from, int to);
+    }
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private ParallelRows() {
+    }
+
+    /*
+     * Returns true if a mesh with that many elements is worth generating in parallel
+     */
+    static boolean worthIt(long elements) {
+        return elements >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /*
+     * Runs the body over every row.
+     * rowSize is the number of elements in a row and decides how many rows a task gets.
+     */
+    static void run(int rows, int rowSize, boolean parallel, Body body) {
+        Thread caller = Thread.currentThread();
+        int rowsPerTask = Math.max(1, GRAIN / Math.max(1, rowSize));
+        if (!parallel || rows < 2) {
+            for (int from = 0; from < rows; from += rowsPerTask) {
+                checkInterrupt(caller);
+                body.run(from, Math.min(rows, from + rowsPerTask));
+            }
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new Block(0, rows, rowsPerTask, body, caller));
+    }
+
+    /*
+     * Throws a CancellationException if the thread was interrupted, the interrupt is kept
+     */
+    private static void checkInterrupt(Thread caller) {
+        if (caller.isInterrupted()) {
+            throw new CancellationException("Interrupted");
+        }
+    }
+
+    /*
+     * Splits its range of rows in half until it is small enough to run directly
+     */
+    private static final class Block extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from, to, rowsPerTask;
+        private final Body body;
+        private final transient Thread caller;  //Thread that started the loop, checked for an interrupt
+
+        Block(int from, int to, int rowsPerTask, Body body, Thread caller) {
+            this.from = from;
+            this.to = to;
+            this.rowsPerTask = rowsPerTask;
+            this.body = body;
+            this.caller = caller;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= rowsPerTask) {
+                checkInterrupt(caller);
+                body.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Block(from, middle, rowsPerTask, body, caller),
+                    new Block(middle, to, rowsPerTask, body, caller));
+        }
+    }
+}
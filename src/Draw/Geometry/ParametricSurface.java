@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: ParametricSurface.java
+ * Class Name: Draw.Geometry.ParametricSurface
+ * Last Modified: 10/18/26, 8:10 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The ParametricSurface interface describes a surface as a function of (u, v), both from 0 to 1.
+ * The Tessellator owns the sampling grid, the texture coordinates (the (u, v) of each vertex) and the faces,
+ * a surface only gives positions and normals.
+ * Evaluation is batched over whole rows, the Tessellator asks for every vertex of a row of the grid at once.
+ * The defaults evaluate the row point by point through position() and normal(), that is the scalar path
+ * every surface gets for free. A surface overrides positions() to compute what only depends on v once per row
+ * and to reuse the tables of the grid, a vectorized evaluation would also go there.
+ * The triangles are wound TopLeft, BottomLeft, TopRight with u growing to the right and
+ * v growing downwards, so u should turn counterclockwise seen from the outside for the faces to point out.
+ * The outward normal is then the cross product of the derivative along v with the derivative along u.
+ * Implementations are called from several threads at once for large meshes and must not keep state.
+ */
+public interface ParametricSurface {
+    /*
+     * Writes x, y, z of the point at (u, v) into out, starting at offset
+     */
+    void position(double u, double v, float[] out, int offset);
+
+    /*
+     * Writes the unit normal at (u, v), pointing outwards, into out starting at offset.
+     * The default takes it from the derivatives of position() by central differences,
+     * surfaces that know their normal should override it.
+     * Where the derivative along u vanishes, like at a pole, the next point inwards along v is used.
+     */
+    default void normal(double u, double v, float[] out, int offset) {
+        double[] n = derivativeCross(u, v);
+        double length = Math.sqrt(n[0] * n[0] + n[1] * n[1] + n[2] * n[2]);
+        if (length < 1e-12) {
+            n = derivativeCross(u, v < 0.5 ? v + 1e-2 : v - 1e-2);     //At a pole
+            length = Math.sqrt(n[0] * n[0] + n[1] * n[1] + n[2] * n[2]);
+        }
+        length = length > 0 ? length : 1;   //Degenerate everywhere around, any value will do
+        out[offset] = (float) (n[0] / length);
+        out[offset + 1] = (float) (n[1] / length);
+        out[offset + 2] = (float) (n[2] / length);
+    }
+
+    /*
+     * Writes x, y, z of the grid.getColumns() vertices of the row into out, starting at offset.
+     * The u of each column comes from the grid, the v from the row.
+     * Must only write its own row, the rows of a large mesh are evaluated in parallel.
+     */
+    default void positions(Tessellator.Grid grid, int row, float[] out, int offset) {
+        double v = grid.v(row);
+        int columns = grid.getColumns();
+        for (int column = 0; column < columns; column++) {
+            position(grid.u(column), v, out, offset + column * 3);
+        }
+    }
+
+    /*
+     * Writes the unit normals of the vertices of the row into out, starting at offset, like positions()
+     */
+    default void normals(Tessellator.Grid grid, int row, float[] out, int offset) {
+        double v = grid.v(row);
+        int columns = grid.getColumns();
+        for (int column = 0; column < columns; column++) {
+            normal(grid.u(column), v, out, offset + column * 3);
+        }
+    }
+
+    /*
+     * True when u = 1 is the same curve as u = 0, like the seam of a surface of revolution.
+     * The Tessellator copies the first column to the seam column so the seam closes exactly.
+     */
+    default boolean closedInU() {
+        return false;
+    }
+
+    /*
+     * True when v = 1 is the same curve as v = 0, like the tube of a torus.
+     * The Tessellator evaluates the last row as row 0.
+     */
+    default boolean closedInV() {
+        return false;
+    }
+
+    /*
+     * True when every vertex of the first row is the same point, like the pole of a sphere.
+     * The triangles that would collapse there are not emitted.
+     */
+    default boolean collapsesAtStart() {
+        return false;
+    }
+
+    /*
+     * True when every vertex of the last row is the same point
+     */
+    default boolean collapsesAtEnd() {
+        return false;
+    }
+
+    /*
+     * The cross product of the derivative along v with the derivative along u, by central differences
+     */
+    private double[] derivativeCross(double u, double v) {
+        double h = 1e-3;   //Positions are floats, a smaller step would mostly measure their rounding
+        float[] p = new float[12];
+        position(u - h, v, p, 0);
+        position(u + h, v, p, 3);
+        position(u, v - h, p, 6);
+        position(u, v + h, p, 9);
+        double ux = p[3] - p[0], uy = p[4] - p[1], uz = p[5] - p[2];
+        double vx = p[9] - p[6], vy = p[10] - p[7], vz = p[11] - p[8];
+        return new double[]{vy * uz - vz * uy, vz * ux - vx * uz, vx * uy - vy * ux};
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: ShapeParameters.java
+ * Class Name: Draw.Geometry.ShapeParameters
+ * Last Modified: 10/18/26, 2:40 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.util.regex.Pattern;
+
+/*
+ * The ShapeParameters class parses and normalizes the dimensions entered by the user.
+ * It does not depend on the text fields, so the same rules can be used
+ * without a JavaFX window, ex: in benchmarks.
+ * Every value is scaled so the shape fits in the 300x300 window, this does NOT preserve ratios.
+ */
+public final class ShapeParameters {
+    /*
+     * A positive number with an optional decimal part, either 1.5 or 1,5
+     * Compiled once rather than on every String.matches call
+     */
+    private static final Pattern NUMBER = Pattern.compile("^[0-9]+([,.][0-9]+)?$");
+
+    private final double length, width, radius, height, majorRadius, minorRadius;  //The normalized values
+
+    private ShapeParameters(double length, double width, double radius, double height,
+                            double majorRadius, double minorRadius) {
+        this.length = length;
+        this.width = width;
+        this.radius = radius;
+        this.height = height;
+        this.majorRadius = majorRadius;
+        this.minorRadius = minorRadius;
+    }
+
+    /*
+     * Parses the text of each field and normalizes the values.
+     * Empty or invalid text counts as 0.
+     */
+    public static ShapeParameters parse(String length, String width, String radius,
+                                        String height, String minorRadius) {
+        return normalize(parseField(length), parseField(width), parseField(radius),
+                parseField(height), parseField(minorRadius));
+    }
+
+    /*
+     * Normalizes already parsed values to prevent clipping.
+     * The radius is used both for round shapes and as the major radius of the torus.
+     */
+    public static ShapeParameters normalize(double len, double wit, double rad, double hgt, double minRad) {
+        double majRad = rad;   //Separate value to manipulate for the torus
+        //Scales the values, does NOT preserve ratios
+        len = 125 + (125 * (((len / 125.0)) - (int) (len / 125)));
+        wit = 125 + (125 * (((wit / 125.0)) - (int) (wit / 125)));
+        hgt = 125 + (125 * (((hgt / 125.0)) - (int) (hgt / 125)));
+        rad = 75 + (75 * (((rad / 75.0)) - (int) (rad / 75.0)));
+        majRad = 37.5 + (37.5 * (((majRad / 37.5)) - (int) (majRad / 37.5)));
+        minRad = 37.5 + (37.5 * (((minRad / 37.5)) - (int) (minRad / 37.5)));
+        return new ShapeParameters(len, wit, rad, hgt, majRad, minRad);
+    }
+
+    /*
+     * Converts the text of a field to a double, 0 if it is not a number.
+     * A decimal comma is accepted by the pattern, so it is read as a decimal point.
+     */
+    public static double parseField(String text) {
+        if (text == null || !NUMBER.matcher(text).matches()) {
+            return 0;
+        }
+        return Double.parseDouble(text.replace(',', '.'));
+    }
+
+    public double getLength() {
+        return length;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    public double getMajorRadius() {
+        return majorRadius;
+    }
+
+    public double getMinorRadius() {
+        return minorRadius;
+    }
+}
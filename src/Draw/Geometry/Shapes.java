@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: Shapes.java
+ * Class Name: Draw.Geometry.Shapes
+ * Last Modified: 10/18/26, 4:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * The Shapes class produces the mesh of every shape the viewer can draw.
+ * It follows the same choices as ParametersController.drawShape() and takes the values
+ * normalized by ShapeParameters, so the meshes match what the viewer shows.
+ * Nothing in this package depends on JavaFX, it can be used without starting the FX toolkit.
+ * The scale is the number of screen pixels per unit and drives the tessellation,
+ * 1 is the default 300x300 window.
+ */
+public final class Shapes {
+    /*
+     * Every shape choice, in the order of the buttons
+     */
+    public static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList(
+            "circle", "square", "triangle", "rectangle", "sphere", "cube", "cone", "cylinder", "torus"));
+    /*
+     * Version of the generators' output, stored with every mesh in the DiskMeshCache.
+     * Must be increased whenever a generator, or the MeshOptimizer the disk cache runs,
+     * produces different vertices, texture coordinates or faces.
+     * The meshes cached by older versions are then generated again.
+     */
+    public static final int GENERATOR_VERSION = 5;  //5: the torus is the original mesh again
+    /*
+     * Nanoseconds each thread spent in generate() and writePoints(), read by the performance overlay
+     */
+    private static final ThreadLocal<long[]> GENERATION_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private Shapes() {
+    }
+
+    /*
+     * Returns the key of the mesh for a shape.
+     * Only the values the shape depends on are part of the key.
+     * Throws an IllegalArgumentException for an unknown shape.
+     */
+    public static MeshKey key(String shape, ShapeParameters p, double scale) {
+        double major = p.getMajorRadius();
+        double minor = p.getMinorRadius();
+        return switch (shape) {
+            case ("circle") -> new MeshKey(shape, new double[]{p.getRadius()},
+                    new int[]{Tessellation.segmentsFor(p.getRadius(), scale, 8, 1024)});
+            case ("square"), ("triangle"), ("cube") -> new MeshKey(shape, new double[]{p.getLength()}, new int[0]);
+            case ("rectangle") -> new MeshKey(shape, new double[]{p.getLength(), p.getWidth()}, new int[0]);
+            case ("sphere") -> new MeshKey(shape, new double[]{p.getRadius()},
+                    new int[]{Tessellation.segmentsFor(p.getRadius(), scale, 16, 512)});
+            case ("cone") -> new MeshKey(shape, new double[]{p.getRadius(), 0, p.getHeight()},
+                    new int[]{Tessellation.segmentsFor(p.getRadius(), scale, 8, 1024)});
+            case ("cylinder") -> new MeshKey(shape, new double[]{p.getRadius(), p.getHeight()},
+                    new int[]{Tessellation.segmentsFor(p.getRadius(), scale, 8, 512)});
+            case ("torus") -> new MeshKey(shape, new double[]{major, minor}, new int[]{
+                    Tessellation.segmentsFor(major + minor, scale, 8, 1024),
+                    Tessellation.segmentsFor(minor, scale, 8, 512)});
+            default -> throw new IllegalArgumentException("Unknown shape: " + shape);
+        };
+    }
+
+    /*
+     * Generates the mesh described by a key created by key()
+     */
+    public static MeshData generate(MeshKey key) {
+        long start = System.nanoTime();
+        try {
+            return build(key);
+        } finally {
+            GENERATION_NANOS.get()[0] += System.nanoTime() - start;
+        }
+    }
+
+    /*
+     * Calls the generator of the shape
+     */
+    private static MeshData build(MeshKey key) {
+        double[] v = key.getValues();
+        int[] segments = key.getSegments();
+        return switch (key.getShape()) {
+            case ("circle") -> FlatGenerator.circle(v[0], segments[0]);
+            case ("square") -> FlatGenerator.rectangle(v[0], v[0]);
+            case ("triangle") -> FlatGenerator.triangle(v[0]);
+            case ("rectangle") -> FlatGenerator.rectangle(v[1], v[0]);
+            case ("sphere") -> SphereGenerator.generate(v[0], segments[0]);
+            case ("cube") -> BoxGenerator.generate(v[0], v[0], v[0]);
+            case ("cone") -> ConeGenerator.generateClosed(v[0], v[1], v[2], segments[0]);
+            case ("cylinder") -> CylinderGenerator.generate(v[0], v[1], segments[0]);
+            case ("torus") -> TorusGenerator.generate(v[0], v[1], segments[0], segments[1]);
+            default -> throw new IllegalArgumentException("Unknown shape: " + key.getShape());
+        };
+    }
+
+    /*
+     * Rewrites only the vertices of the mesh described by the key into an existing points array.
+     * The array must come from a mesh with the same shape and segments, the texture coordinates
+     * and faces of that mesh stay valid.
+     * Returns false if the shape has no vertex only writer, the whole mesh has to be generated then.
+     */
+    public static boolean writePoints(MeshKey key, float[] points) {
+        double[] v = key.getValues();
+        int[] segments = key.getSegments();
+        long start = System.nanoTime();
+        switch (key.getShape()) {
+            case ("sphere") -> SphereGenerator.writePoints(v[0], segments[0], points);
+            case ("cone") -> ConeGenerator.writePoints(v[0], v[1], v[2], segments[0], true, points);
+            case ("cylinder") -> CylinderGenerator.writePoints(v[0], v[1], segments[0], points);
+            case ("torus") -> TorusGenerator.writePoints(v[0], v[1], segments[0], segments[1], points);
+            default -> {
+                return false;
+            }
+        }
+        GENERATION_NANOS.get()[0] += System.nanoTime() - start;
+        return true;
+    }
+
+    /*
+     * Total nanoseconds the calling thread spent generating meshes.
+     * Only differences between two calls are meaningful, other threads are not counted.
+     */
+    public static long getGenerationNanos() {
+        return GENERATION_NANOS.get()[0];
+    }
+
+    /*
+     * Generates the mesh of a shape without using the cache
+     */
+    public static MeshData generate(String shape, ShapeParameters p, double scale) {
+        return generate(key(shape, p, scale));
+    }
+
+    /*
+     * Returns the mesh of a shape from the shared caches, generating it on a miss
+     */
+    public static MeshData mesh(String shape, ShapeParameters p, double scale) {
+        return mesh(key(shape, p, scale));
+    }
+
+    /*
+     * Returns the mesh of a key from memory, or else from the disk cache of earlier runs,
+     * generating it only if neither has it
+     */
+    public static MeshData mesh(MeshKey key) {
+        return MeshCache.shared().getOrCreate(key,
+                () -> DiskMeshCache.shared().getOrCreate(key, () -> generate(key)));
+    }
+}
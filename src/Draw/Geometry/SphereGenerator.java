@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: SphereGenerator.java
+ * Class Name: Draw.Geometry.SphereGenerator
+ * Last Modified: 10/18/26, 4:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The SphereGenerator class builds a latitude/longitude sphere centered on the origin.
+ * The poles are on the Y axis like the built in JavaFX Sphere.
+ * It is the ellipsoid of Surfaces with equal radii, built by the Tessellator.
+ * The seam column and the pole rows are duplicated so the texture wraps cleanly,
+ * the triangles that would collapse at the poles are not emitted.
+ */
+public final class SphereGenerator {
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private SphereGenerator() {
+    }
+
+    /*
+     * Generates a sphere, segments is the number of divisions around the equator.
+     * Half as many rows go from pole to pole.
+     */
+    public static MeshData generate(double radius, int segments) {
+        return Tessellator.tessellate(Surfaces.ellipsoid(radius, radius, radius), segments, rows(segments));
+    }
+
+    /*
+     * Rewrites only the vertices of a sphere into an existing points array.
+     * The texture coordinates and faces only depend on the segment count.
+     * Throws an IllegalArgumentException if the array does not have the size of the sphere.
+     */
+    public static void writePoints(double radius, int segments, float[] points) {
+        Tessellator.writePoints(Surfaces.ellipsoid(radius, radius, radius), segments, rows(segments), points);
+    }
+
+    /*
+     * Number of rows from pole to pole
+     */
+    private static int rows(int segments) {
+        return Math.max(2, segments / 2);
+    }
+}
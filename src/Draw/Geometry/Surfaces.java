@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: Surfaces.java
+ * Class Name: Draw.Geometry.Surfaces
+ * Last Modified: 10/18/26, 8:10 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The Surfaces class holds the closed surfaces that are built by the Tessellator.
+ * Each one is a ParametricSurface centered on the origin with its poles on the Y axis,
+ * u goes around the Y axis and v from the top pole (v = 0) to the bottom one.
+ */
+public final class Surfaces {
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private Surfaces() {
+    }
+
+    /*
+     * An ellipsoid with the given radius along each axis, a sphere when they are equal
+     */
+    public static ParametricSurface ellipsoid(double radiusX, double radiusY, double radiusZ) {
+        return new Revolution() {
+            @Override
+            public void position(double u, double v, float[] out, int offset) {
+                double theta = 2 * Math.PI * u;
+                double phi = Math.PI * v;   //0 at the top pole, PI at the bottom
+                double sin = Math.sin(phi);
+                out[offset] = (float) (radiusX * sin * Math.cos(theta));
+                out[offset + 1] = (float) (-radiusY * Math.cos(phi));
+                out[offset + 2] = (float) (radiusZ * sin * Math.sin(theta));
+            }
+
+            @Override
+            public void normal(double u, double v, float[] out, int offset) {
+                double theta = 2 * Math.PI * u;
+                double phi = Math.PI * v;
+                writeNormal(Math.sin(phi), Math.cos(phi), Math.cos(theta), Math.sin(theta), out, offset);
+            }
+
+            @Override
+            public void positions(Tessellator.Grid grid, int row, float[] out, int offset) {
+                double phi = Math.PI * grid.v(row);   //Only depends on the row
+                double sin = Math.sin(phi);
+                double ringX = radiusX * sin;
+                double ringZ = radiusZ * sin;
+                float y = (float) (-radiusY * Math.cos(phi));
+                int columns = grid.getColumns();
+                for (int column = 0; column < columns; column++) {
+                    out[offset++] = (float) (ringX * grid.cos(column));
+                    out[offset++] = y;
+                    out[offset++] = (float) (ringZ * grid.sin(column));
+                }
+            }
+
+            @Override
+            public void normals(Tessellator.Grid grid, int row, float[] out, int offset) {
+                double phi = Math.PI * grid.v(row);
+                double sin = Math.sin(phi);
+                double cos = Math.cos(phi);
+                int columns = grid.getColumns();
+                for (int column = 0; column < columns; column++) {
+                    writeNormal(sin, cos, grid.cos(column), grid.sin(column), out, offset + column * 3);
+                }
+            }
+
+            /*
+             * The gradient of (x/rx)^2 + (y/ry)^2 + (z/rz)^2, normalized. It stays on the Y axis at the poles.
+             */
+            private void writeNormal(double sinPhi, double cosPhi, double cosTheta, double sinTheta, float[] out,
+                                     int offset) {
+                double x = sinPhi * cosTheta / radiusX;
+                double y = -cosPhi / radiusY;
+                double z = sinPhi * sinTheta / radiusZ;
+                double length = Math.sqrt(x * x + y * y + z * z);
+                out[offset] = (float) (x / length);
+                out[offset + 1] = (float) (y / length);
+                out[offset + 2] = (float) (z / length);
+            }
+        };
+    }
+
+    /*
+     * A superellipsoid, an ellipsoid whose cross sections are raised to an exponent.
+     * roundness 1 around the Y axis and from pole to pole gives the ellipsoid, values near 0 a box
+     * with rounded edges, 2 a double cone, larger values a pinched star.
+     * Its normal is taken from the derivatives, see ParametricSurface.normal().
+     */
+    public static ParametricSurface superellipsoid(double radiusX, double radiusY, double radiusZ,
+                                                   double roundnessAround, double roundnessPoles) {
+        if (roundnessAround <= 0 || roundnessPoles <= 0) {
+            throw new IllegalArgumentException("The roundness must be positive");
+        }
+        return new Revolution() {
+            @Override
+            public void position(double u, double v, float[] out, int offset) {
+                double theta = 2 * Math.PI * u;
+                double phi = Math.PI * v;
+                double ring = signedPow(Math.sin(phi), roundnessPoles);
+                out[offset] = (float) (radiusX * ring * signedPow(Math.cos(theta), roundnessAround));
+                out[offset + 1] = (float) (-radiusY * signedPow(Math.cos(phi), roundnessPoles));
+                out[offset + 2] = (float) (radiusZ * ring * signedPow(Math.sin(theta), roundnessAround));
+            }
+
+            @Override
+            public void positions(Tessellator.Grid grid, int row, float[] out, int offset) {
+                double phi = Math.PI * grid.v(row);
+                double ring = signedPow(Math.sin(phi), roundnessPoles);
+                double ringX = radiusX * ring;
+                double ringZ = radiusZ * ring;
+                float y = (float) (-radiusY * signedPow(Math.cos(phi), roundnessPoles));
+                int columns = grid.getColumns();
+                for (int column = 0; column < columns; column++) {
+                    out[offset++] = (float) (ringX * signedPow(grid.cos(column), roundnessAround));
+                    out[offset++] = y;
+                    out[offset++] = (float) (ringZ * signedPow(grid.sin(column), roundnessAround));
+                }
+            }
+        };
+    }
+
+    /*
+     * A surface around the Y axis from pole to pole, closed around the axis and collapsed at both poles
+     */
+    private abstract static class Revolution implements ParametricSurface {
+        @Override
+        public boolean closedInU() {
+            return true;
+        }
+
+        @Override
+        public boolean collapsesAtStart() {
+            return true;
+        }
+
+        @Override
+        public boolean collapsesAtEnd() {
+            return true;
+        }
+    }
+
+    /*
+     * Raises the magnitude to the exponent and keeps the sign, so the surface stays symmetric
+     */
+    private static double signedPow(double value, double exponent) {
+        return Math.copySign(Math.pow(Math.abs(value), exponent), value);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: Tessellation.java
+ * Class Name: Draw.Geometry.Tessellation
+ * Last Modified: 10/18/26, 4:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The Tessellation class decides how many segments a round shape is cut into.
+ * The count follows the circumference of the shape in screen pixels, so a shape
+ * twice as large on screen gets twice the segments in each direction.
+ * The scale is the number of screen pixels per unit, 1 in the default 300x300 window.
+ */
+public final class Tessellation {
+    /*
+     * Screen pixels covered by one segment along a circumference.
+     * 4 pixels gives the original 128x64 torus at the default window size.
+     */
+    public static final double PIXELS_PER_SEGMENT = 4;
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private Tessellation() {
+    }
+
+    /*
+     * Returns the number of segments for a circle of the given radius at the given scale.
+     * The result is a power of two clamped between min and max, min should be a power of two.
+     * Powers of two keep the number of distinct meshes, and so cache misses, low.
+     */
+    public static int segmentsFor(double radius, double pixelsPerUnit, int min, int max) {
+        double wanted = 2 * Math.PI * radius * pixelsPerUnit / PIXELS_PER_SEGMENT;
+        int segments = min;
+        while (segments < max && segments * 1.5 < wanted) {  //1.5 rounds to the nearest power
+            segments *= 2;
+        }
+        return Math.min(segments, max);
+    }
+}
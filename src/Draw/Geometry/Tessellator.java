@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: Tessellator.java
+ * Class Name: Draw.Geometry.Tessellator
+ * Last Modified: 10/18/26, 8:10 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+import java.util.Arrays;
+
+/*
+ * The Tessellator class turns a ParametricSurface into an indexed mesh.
+ * The surface is sampled on a grid of (vSegments + 1) rows of (uSegments + 1) vertices,
+ * vertex (column, row) is at u = column / uSegments and v = row / vSegments.
+ * The Tessellator walks the rows of the grid and has the surface evaluate a whole row at a time,
+ * it writes the texture coordinates and the faces itself.
+ * The seam column is kept so the texture wraps cleanly, for a closed surface it is a copy of the first column.
+ * Every row is independent, large meshes are split into blocks of rows on the ForkJoinPool
+ * and the result is bit for bit the same as the serial one.
+ */
+public final class Tessellator {
+
+    /*
+     * The sampling of a surface, shared by every row and never modified.
+     * Besides u and v it holds cos(2 PI u) and sin(2 PI u) of every column, from the cached AngleTable,
+     * so the surfaces of revolution do not call Math.cos/Math.sin per vertex.
+     */
+    public static final class Grid {
+        private final int uSegments;
+        private final int vSegments;
+        private final double[] u;   //u of every column
+        private final double[] cos; //cos(2 PI u) of every column
+        private final double[] sin; //sin(2 PI u) of every column
+
+        private Grid(int uSegments, int vSegments, int columns) {
+            if (vSegments < 1) {
+                throw new IllegalArgumentException("At least 1 row is needed, got " + vSegments);
+            }
+            this.uSegments = uSegments;
+            this.vSegments = vSegments;
+            AngleTable angles = AngleTable.of(uSegments);   //Checks uSegments
+            u = new double[columns];
+            cos = new double[columns];
+            sin = new double[columns];
+            for (int column = 0; column < columns; column++) {
+                int step = column % uSegments;  //The seam column repeats the first one
+                u[column] = (double) column / uSegments;
+                cos[column] = angles.cos(step);
+                sin[column] = angles.sin(step);
+            }
+        }
+
+        public int getUSegments() {
+            return uSegments;
+        }
+
+        public int getVSegments() {
+            return vSegments;
+        }
+
+        /*
+         * Number of vertices in a row
+         */
+        public int getColumns() {
+            return u.length;
+        }
+
+        public double u(int column) {
+            return u[column];
+        }
+
+        public double v(int row) {
+            return (double) row / vSegments;
+        }
+
+        /*
+         * The cosine of the angle 2 PI u of the column, for the surfaces of revolution
+         */
+        public double cos(int column) {
+            return cos[column];
+        }
+
+        /*
+         * The sine of the angle 2 PI u of the column
+         */
+        public double sin(int column) {
+            return sin[column];
+        }
+    }
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private Tessellator() {
+    }
+
+    /*
+     * Returns the grid of the Tessellator, uSegments + 1 columns with the seam column
+     */
+    public static Grid grid(int uSegments, int vSegments) {
+        return new Grid(uSegments, vSegments, uSegments + 1);
+    }
+
+    /*
+     * Returns a grid without the seam column, for the generators whose faces wrap around to the first column.
+     * The cone and the cylinder evaluate their rings on it.
+     */
+    public static Grid ring(int uSegments, int vSegments) {
+        return new Grid(uSegments, vSegments, uSegments);
+    }
+
+    /*
+     * Builds the mesh of the surface, in parallel when it is large enough
+     */
+    public static MeshData tessellate(ParametricSurface surface, int uSegments, int vSegments) {
+        return tessellate(surface, uSegments, vSegments, worthIt(uSegments, vSegments));
+    }
+
+    /*
+     * Builds the mesh of the surface, splitting the rows into blocks on the ForkJoinPool when parallel is set.
+     * The texture coordinates are steps of (float) 1 / segments, like the original torus.
+     */
+    public static MeshData tessellate(ParametricSurface surface, int uSegments, int vSegments, boolean parallel) {
+        Grid grid = grid(uSegments, vSegments);
+        int columns = grid.getColumns();
+        boolean skipFirst = surface.collapsesAtStart();
+        boolean skipLast = surface.collapsesAtEnd();
+        float[] points = new float[(vSegments + 1) * columns * 3];
+        float[] uv = new float[(vSegments + 1) * columns * 2];
+        int quads = vSegments * uSegments * 2 - ((skipFirst ? 1 : 0) + (skipLast ? 1 : 0)) * uSegments;
+        int[] faces = new int[Math.max(0, quads) * 6];
+        float deltaU = (float) 1 / uSegments;
+        float deltaV = (float) 1 / vSegments;
+        ParallelRows.run(vSegments + 1, columns, parallel, (from, to) -> {
+            for (int row = from; row < to; row++) {
+                writeRow(surface, grid, row, false, points);
+                int t = row * columns * 2;
+                float v = row * deltaV;
+                for (int column = 0; column < columns; column++) {
+                    uv[t++] = column * deltaU;
+                    uv[t++] = v;
+                }
+                if (row < vSegments) {
+                    writeFaces(row, uSegments, vSegments, skipFirst, skipLast, faces);
+                }
+            }
+        });
+        int[] groups = new int[faces.length / 6];
+        Arrays.fill(groups, 1);     //One smooth surface, the seam and poles may be welded
+        return new MeshData(points, uv, faces, groups);
+    }
+
+    /*
+     * Rewrites only the vertices of the surface into an existing points array.
+     * The texture coordinates and faces only depend on the segment counts and the collapsed ends.
+     * Throws an IllegalArgumentException if the array does not have the size of the grid.
+     */
+    public static void writePoints(ParametricSurface surface, int uSegments, int vSegments, float[] points) {
+        Grid grid = grid(uSegments, vSegments);
+        if (points.length != (vSegments + 1) * grid.getColumns() * 3) {
+            throw new IllegalArgumentException("Points array does not match a " + uSegments + "x" + vSegments
+                    + " grid: " + points.length);
+        }
+        ParallelRows.run(vSegments + 1, grid.getColumns(), worthIt(uSegments, vSegments), (from, to) -> {
+            for (int row = from; row < to; row++) {
+                writeRow(surface, grid, row, false, points);
+            }
+        });
+    }
+
+    /*
+     * Returns the unit normal of every vertex, x, y, z in the same order as the points of tessellate()
+     */
+    public static float[] normals(ParametricSurface surface, int uSegments, int vSegments) {
+        Grid grid = grid(uSegments, vSegments);
+        float[] normals = new float[(vSegments + 1) * grid.getColumns() * 3];
+        ParallelRows.run(vSegments + 1, grid.getColumns(), worthIt(uSegments, vSegments), (from, to) -> {
+            for (int row = from; row < to; row++) {
+                writeRow(surface, grid, row, true, normals);
+            }
+        });
+        return normals;
+    }
+
+    /*
+     * Evaluates the positions, or the normals, of one row into out.
+     * Closed surfaces repeat the first column and row on the seams. The last row is evaluated as row 0
+     * rather than copied, another thread may own row 0.
+     */
+    private static void writeRow(ParametricSurface surface, Grid grid, int row, boolean normals, float[] out) {
+        int columns = grid.getColumns();
+        int offset = row * columns * 3;
+        int evaluated = row == grid.getVSegments() && surface.closedInV() ? 0 : row;
+        if (normals) {
+            surface.normals(grid, evaluated, out, offset);
+        } else {
+            surface.positions(grid, evaluated, out, offset);
+        }
+        if (surface.closedInU()) {
+            System.arraycopy(out, offset, out, offset + (columns - 1) * 3, 3);
+        }
+    }
+
+    /*
+     * Returns true if the grid is large enough to be split across threads
+     */
+    private static boolean worthIt(int uSegments, int vSegments) {
+        return ParallelRows.worthIt((long) (uSegments + 1) * (vSegments + 1));
+    }
+
+    /*
+     * Writes the faces between row and row + 1, texture indices match point indices.
+     * Where the surface collapses, the triangle with 2 vertices on that row is left out.
+     */
+    private static void writeFaces(int row, int uSegments, int vSegments, boolean skipFirst, boolean skipLast,
+                                   int[] faces) {
+        int columns = uSegments + 1;
+        boolean top = !(skipFirst && row == 0);
+        boolean bottom = !(skipLast && row == vSegments - 1);
+        //Triangles of the rows before this one
+        int before = row * uSegments * 2 - (skipFirst && row > 0 ? uSegments : 0);
+        int i = before * 6;
+        for (int column = 0; column < uSegments; column++) {
+            int topLeft = row * columns + column;
+            int bottomLeft = topLeft + columns;
+            int bottomRight = bottomLeft + 1;
+            int topRight = topLeft + 1;
+            if (top) {
+                i = MeshData.writeFace(faces, i, topLeft, bottomLeft, topRight);
+            }
+            if (bottom) {
+                i = MeshData.writeFace(faces, i, bottomLeft, bottomRight, topRight);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: TorusGenerator.java
+ * Class Name: Draw.Geometry.TorusGenerator
+ * Last Modified: 10/18/26, 9:12 AM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw.Geometry;
+
+/*
+ * The TorusGenerator class builds the mesh of a torus.
+ * The torus is a ParametricSurface built by the Tessellator, u goes around the ring and v around the tube.
+ * Its rows are written straight into the primitive arrays from one sin/cos table for the ring and one
+ * for the tube, no object is created per vertex.
+ * Torus Math from:
+ * http://www.lagers.org.uk/javafx/toroidclass.html
+ */
+public final class TorusGenerator {
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private TorusGenerator() {
+    }
+
+    /*
+     * Generates a torus with the given radii and number of segments.
+     * Large tori are generated in parallel, see generate(..., parallel).
+     */
+    public static MeshData generate(double majRad, double minRad, int ringSegments, int tubeSegments) {
+        long vertices = (long) (ringSegments + 1) * (tubeSegments + 1);
+        return generate(majRad, minRad, ringSegments, tubeSegments, ParallelRows.worthIt(vertices));
+    }
+
+    /*
+     * Generates a torus with the given radii and number of segments.
+     * The seam row and column are duplicated (segments + 1 steps) so the texture wraps cleanly.
+     * The vertices are identical to the original Point3D based implementation, including
+     * the mixed float/double precision of the math, and so are the texture coordinates.
+     * With parallel set the tube rows are split into blocks on the ForkJoinPool.
+     * The result is bit for bit the same as the serial one.
+     */
+    public static MeshData generate(double majRad, double minRad, int ringSegments, int tubeSegments,
+                                    boolean parallel) {
+        return Tessellator.tessellate(surface(majRad, minRad, ringSegments, tubeSegments), ringSegments,
+                tubeSegments, parallel);
+    }
+
+    /*
+     * Rewrites only the vertices of a torus into an existing points array.
+     * The texture coordinates and faces of a torus depend only on the segment counts,
+     * so a torus with new radii but the same segments can keep them.
+     * Throws an IllegalArgumentException if the array does not have the size of the torus.
+     */
+    public static void writePoints(double majRad, double minRad, int ringSegments, int tubeSegments,
+                                   float[] points) {
+        Tessellator.writePoints(surface(majRad, minRad, ringSegments, tubeSegments), ringSegments, tubeSegments,
+                points);
+    }
+
+    /*
+     * Returns the torus as a surface, u goes around the ring and v around the tube.
+     * v = 0 is the outer equator, the tube is then turned upwards first.
+     * The rows of the ringSegments x tubeSegments grid are evaluated from sin/cos tables computed here
+     * with the float angles of the original implementation, the rows only multiply them.
+     * The seams are not closed, like the original the last angles are a float rounding away from 2 PI.
+     * Any other point is evaluated by position() in double precision.
+     */
+    public static ParametricSurface surface(double majRad, double minRad, int ringSegments, int tubeSegments) {
+        float majRadius = (float) majRad;   //Converts the radius to a float
+        float minRadius = (float) minRad;   //Converts the minor radius to a float
+        int ringSteps = ringSegments + 1; //Convenient for the math
+        int tubeSteps = tubeSegments + 1; //Convenient for the math
+        float ringDelta = (float) (2 * Math.PI / ringSegments);
+        float tubeDelta = (float) (2 * Math.PI / tubeSegments);
+
+        //Tube table, the cross section of the torus in the Z=0 plane
+        double[] tubeX = new double[tubeSteps];
+        float[] tubeY = new float[tubeSteps];
+        for (int t = 0; t < tubeSteps; t++) {
+            float angle = t * tubeDelta;
+            tubeX[t] = majRadius + minRadius * Math.cos(angle);
+            tubeY[t] = (float) (minRadius * Math.sin(angle));
+        }
+        //Ring table, the rotation of the cross section around the Y axis
+        float[] ringCos = new float[ringSteps];
+        float[] ringSin = new float[ringSteps];
+        for (int r = 0; r < ringSteps; r++) {
+            float angle = r * ringDelta;
+            ringCos[r] = (float) Math.cos(angle);
+            ringSin[r] = (float) Math.sin(angle);
+        }
+        return new ParametricSurface() {
+            @Override
+            public void position(double u, double v, float[] out, int offset) {
+                double ring = 2 * Math.PI * u;
+                double tube = 2 * Math.PI * v;
+                double x = majRad + minRad * Math.cos(tube);   //Distance from the Y axis
+                out[offset] = (float) (x * Math.cos(ring));
+                out[offset + 1] = (float) (minRad * Math.sin(tube));
+                out[offset + 2] = (float) (x * Math.sin(ring));
+            }
+
+            @Override
+            public void normal(double u, double v, float[] out, int offset) {
+                double ring = 2 * Math.PI * u;
+                double tube = 2 * Math.PI * v;
+                double cos = Math.cos(tube);
+                out[offset] = (float) (cos * Math.cos(ring));
+                out[offset + 1] = (float) Math.sin(tube);
+                out[offset + 2] = (float) (cos * Math.sin(ring));
+            }
+
+            @Override
+            public void positions(Tessellator.Grid grid, int row, float[] out, int offset) {
+                if (grid.getUSegments() != ringSegments || grid.getVSegments() != tubeSegments
+                        || grid.getColumns() != ringSteps) {
+                    ParametricSurface.super.positions(grid, row, out, offset);  //Not the grid of the tables
+                    return;
+                }
+                writeRow(tubeX[row], tubeY[row], ringCos, ringSin, ringSteps, out, offset);
+            }
+        };
+    }
+
+    /*
+     * Calculates the vertices of one tube row, tube major so neighbouring vertices share a tube angle
+     */
+    private static void writeRow(double x, float y, float[] ringCos, float[] ringSin, int ringSteps,
+                                 float[] points, int i) {
+        //The Z=0 plane is not rotated
+        points[i++] = (float) x;
+        points[i++] = y;
+        points[i++] = 0;
+        for (int r = 1; r < ringSteps; r++) {
+            points[i++] = (float) (x * ringCos[r]);
+            points[i++] = y;
+            points[i++] = (float) (x * ringSin[r]);
+        }
+    }
+}
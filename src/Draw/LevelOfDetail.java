@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: LevelOfDetail.java
+ * Class Name: Draw.LevelOfDetail
+ * Last Modified: 10/18/26, 1:35 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import javafx.beans.InvalidationListener;
+import javafx.geometry.Bounds;
+import javafx.scene.Camera;
+import javafx.scene.Node;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.Scene;
+import javafx.scene.transform.Transform;
+
+/*
+ * The LevelOfDetail class picks the tessellation of a shape from its size on screen.
+ * The projected scale (screen pixels per scene unit) is computed from the node's
+ * transform to the scene and the scene's PerspectiveCamera.
+ * Segment counts follow the projected circumference of the shape (see Geometry.Tessellation),
+ * so the triangle count stays roughly proportional to the number of pixels covered.
+ * Segment counts are rounded to powers of two and a rebuild only happens once the
+ * scale moved past a hysteresis band, so small changes do not thrash the meshes.
+ */
+public class LevelOfDetail {
+    /*
+     * Relative change of the projected scale needed before the shape is rebuilt
+     */
+    private static final double HYSTERESIS = 0.3;
+
+    private final Scene scene;
+    private final Node node;
+    private final Rebuild rebuild;
+    private double appliedScale;    //The scale the current meshes were built for
+
+    /*
+     * Called with the new projected scale when the shape should be rebuilt
+     */
+    public interface Rebuild {
+        void apply(double pixelsPerUnit);
+    }
+
+    private LevelOfDetail(Scene scene, Node node, Rebuild rebuild, double appliedScale) {
+        this.scene = scene;
+        this.node = node;
+        this.rebuild = rebuild;
+        this.appliedScale = appliedScale;
+    }
+
+    /*
+     * Starts tracking the projected size of the node.
+     * initialScale is the scale the node's meshes were built for.
+     * The node should not be the one being animated, a rotation does not change its size
+     * but would trigger the transform listener on every frame.
+     */
+    public static LevelOfDetail attach(Scene scene, Node node, double initialScale, Rebuild rebuild) {
+        LevelOfDetail lod = new LevelOfDetail(scene, node, rebuild, initialScale);
+        InvalidationListener update = observable -> lod.update();
+        scene.widthProperty().addListener(update);
+        scene.heightProperty().addListener(update);
+        scene.cameraProperty().addListener(update);
+        node.localToSceneTransformProperty().addListener(update);
+        if (scene.getCamera() instanceof PerspectiveCamera) {
+            ((PerspectiveCamera) scene.getCamera()).fieldOfViewProperty().addListener(update);
+        }
+        return lod;
+    }
+
+    /*
+     * Rebuilds the shape if the projected scale moved outside of the hysteresis band
+     */
+    private void update() {
+        double scale = projectedScale(scene, node);
+        if (scale <= 0 || Double.isNaN(scale)) {
+            return;     //Not laid out yet
+        }
+        double ratio = scale / appliedScale;
+        if (ratio > 1 + HYSTERESIS || ratio < 1 / (1 + HYSTERESIS)) {
+            appliedScale = scale;
+            rebuild.apply(scale);
+        }
+    }
+
+    /*
+     * Returns the number of screen pixels covered by one unit of the node's local space.
+     * Includes the scaling of every parent and the perspective division of the camera.
+     * With PerspectiveCamera(false) the Z=0 plane maps 1:1 to pixels, things further away shrink.
+     */
+    public static double projectedScale(Scene scene, Node node) {
+        Transform t = node.getLocalToSceneTransform();
+        //Length of the transformed X axis, unaffected by rotation
+        double scale = Math.sqrt(t.getMxx() * t.getMxx() + t.getMyx() * t.getMyx() + t.getMzx() * t.getMzx());
+        Camera camera = scene.getCamera();
+        if (camera instanceof PerspectiveCamera) {
+            PerspectiveCamera perspective = (PerspectiveCamera) camera;
+            double size = perspective.isVerticalFieldOfView() ? scene.getHeight() : scene.getWidth();
+            double distance = (size / 2) / Math.tan(Math.toRadians(perspective.getFieldOfView() / 2));
+            Bounds bounds = node.localToScene(node.getBoundsInLocal());
+            double depth = (bounds.getMinZ() + bounds.getMaxZ()) / 2;
+            if (distance + depth > 0) {
+                scale *= distance / (distance + depth);
+            }
+        }
+        return scale;
+    }
+}
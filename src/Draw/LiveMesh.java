@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: LiveMesh.java
+ * Class Name: Draw.LiveMesh
+ * Last Modified: 10/18/26, 3:40 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.MeshData;
+import Draw.Geometry.MeshKey;
+import Draw.Geometry.ShapeParameters;
+import Draw.Geometry.Shapes;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/*
+ * The LiveMesh class owns the TriangleMesh of a shape whose dimensions change while it is shown.
+ * As long as the segment counts stay the same only the vertices are rewritten, in place,
+ * through ObservableFloatArray.set(). The texture coordinates and faces are left untouched.
+ * A change of the segment counts, from the level of detail or a much larger radius, rebuilds the whole mesh.
+ * Every vertex rewrite and rebuild is computed on a MeshLoader thread, the JavaFX thread only copies
+ * the result into the mesh. The mesh keeps its current content until then, and a newer edit cancels
+ * the older one, interrupting its generation.
+ * Unlike the meshes of MeshInstances, a LiveMesh is never shared.
+ * Apart from load(), the methods must be called on the JavaFX thread.
+ */
+public final class LiveMesh {
+    private final String shape;
+    private final TriangleMesh mesh = new TriangleMesh();
+    private ShapeParameters parameters;
+    private double scale;   //Screen scale the segment counts were picked for
+    private MeshKey key;    //Describes the current content of the mesh
+    private MeshKey pendingKey; //Describes the mesh being generated, null when none
+    private MeshLoader.Job pending;
+
+    /*
+     * Fills the mesh, it is not in a scene yet so this may run on any thread
+     */
+    private LiveMesh(String shape, ShapeParameters p, double scale, MeshKey key, MeshData data) {
+        this.shape = shape;
+        this.parameters = p;
+        this.scale = scale;
+        apply(key, data);
+    }
+
+    /*
+     * Generates the first mesh of the shape on a MeshLoader thread.
+     * then is called with the LiveMesh on the JavaFX thread, failed instead if the generation throws.
+     */
+    public static MeshLoader.Job load(String shape, ShapeParameters p, double scale, Consumer<LiveMesh> then,
+                                      Consumer<Throwable> failed) {
+        MeshKey key = Shapes.key(shape, p, scale);
+        return MeshLoader.submit(() -> new LiveMesh(shape, p, scale, key, Shapes.generate(key)), then, failed);
+    }
+
+    public TriangleMesh getMesh() {
+        return mesh;
+    }
+
+    public ShapeParameters getParameters() {
+        return parameters;
+    }
+
+    /*
+     * Changes the dimensions of the shape
+     */
+    public void setParameters(ShapeParameters p) {
+        parameters = p;
+        update();
+    }
+
+    /*
+     * Changes the screen scale, used as a LevelOfDetail.Rebuild
+     */
+    public void setScale(double scale) {
+        this.scale = scale;
+        update();
+    }
+
+    /*
+     * Brings the mesh up to date with the parameters and scale
+     */
+    private void update() {
+        MeshKey next = Shapes.key(shape, parameters, scale);
+        if (next.equals(pendingKey)) {
+            return;     //Already being generated
+        }
+        cancel();   //Outdated by the new dimensions
+        if (next.equals(key)) {
+            return;     //Nothing the mesh depends on changed
+        }
+        pendingKey = next;
+        if (!Arrays.equals(next.getSegments(), key.getSegments())) {
+            rebuild(next);
+            return;
+        }
+        int length = mesh.getPoints().size();
+        pending = MeshLoader.submit(() -> {
+            float[] moved = new float[length];
+            return Shapes.writePoints(next, moved) ? moved : null;
+        }, moved -> {
+            if (moved == null) {
+                rebuild(next);  //The shape has no vertex only writer
+                return;
+            }
+            pending = null;
+            pendingKey = null;
+            mesh.getPoints().set(0, moved, 0, moved.length);
+            key = next;
+        }, e -> {
+            pending = null;     //Keeps the current mesh
+            pendingKey = null;
+        });
+    }
+
+    /*
+     * Generates the whole mesh for the key, it replaces the content of the mesh once ready.
+     * Not cached, the intermediate sizes of a live edit are rarely drawn again.
+     */
+    private void rebuild(MeshKey next) {
+        pending = MeshLoader.submit(() -> Shapes.generate(next), data -> {
+            pending = null;
+            pendingKey = null;
+            apply(next, data);
+        }, e -> {
+            pending = null;     //Keeps the current mesh
+            pendingKey = null;
+        });
+    }
+
+    /*
+     * Replaces the whole content of the mesh
+     */
+    private void apply(MeshKey next, MeshData data) {
+        mesh.getPoints().setAll(data.getPoints());
+        mesh.getTexCoords().setAll(data.getTexCoords());
+        mesh.getFaces().setAll(data.getFaces());
+        mesh.getFaceSmoothingGroups().setAll(data.getSmoothingGroups());
+        key = next;
+    }
+
+    /*
+     * Cancels the rebuild being generated, if any
+     */
+    private void cancel() {
+        if (pending != null) {
+            pending.cancel();
+            pending = null;
+            pendingKey = null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: LivePreview.java
+ * Class Name: Draw.LivePreview
+ * Last Modified: 10/18/26, 3:40 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.ShapeParameters;
+import javafx.animation.PauseTransition;
+import javafx.scene.Scene;
+import javafx.scene.control.TextField;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+
+import java.util.function.Supplier;
+
+/*
+ * The LivePreview class applies edits of the parameter fields to a shape that is already shown.
+ * Edits are debounced, the shape is only updated once the user stopped typing for DELAY.
+ * The preview follows a single shape window and stops by itself once that window was closed
+ * or shows another scene.
+ */
+public final class LivePreview {
+    /*
+     * Time without edits before the shape is updated, configurable with -Ddraw.livePreview.delay (ms)
+     */
+    public static final Duration DELAY = Duration.millis(Long.getLong("draw.livePreview.delay", 150));
+
+    private final Supplier<ShapeParameters> read;
+    private final PauseTransition debounce = new PauseTransition(DELAY);
+    private Update target;  //Updates the shown shape, null when not following a window
+    private Stage stage;
+    private Scene scene;
+
+    /*
+     * Called with the new dimensions of the shape
+     */
+    public interface Update {
+        void apply(ShapeParameters p);
+    }
+
+    /*
+     * Listens to the fields, read turns their current text into parameters
+     */
+    public LivePreview(Supplier<ShapeParameters> read, TextField... fields) {
+        this.read = read;
+        for (TextField field : fields) {
+            field.textProperty().addListener(observable -> changed());
+        }
+        debounce.setOnFinished(event -> apply());
+    }
+
+    /*
+     * Starts updating the shape shown in the stage
+     */
+    public void follow(Stage stage, Update target) {
+        debounce.stop();
+        this.stage = stage;
+        this.scene = stage.getScene();
+        this.target = target;
+    }
+
+    /*
+     * Stops updating the shape, pending edits are dropped
+     */
+    public void stop() {
+        debounce.stop();
+        target = null;
+        stage = null;
+        scene = null;
+    }
+
+    public boolean isFollowing() {
+        return target != null;
+    }
+
+    /*
+     * Restarts the debounce timer on every edit
+     */
+    private void changed() {
+        if (target != null) {
+            debounce.playFromStart();
+        }
+    }
+
+    /*
+     * Applies the edits once the user stopped typing
+     */
+    private void apply() {
+        if (target == null) {
+            return;
+        }
+        if (!stage.isShowing() || stage.getScene() != scene) {
+            stop();     //The window was closed, or reused by ShapeWindows for another shape
+            return;
+        }
+        target.apply(read.get());
+    }
+}
@@ -50,12 +50,16 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) throws Exception {
+        Startup.mark(Startup.LAUNCH);
         FXMLLoader loader = new FXMLLoader(getClass().getResource("draw.fxml"));
         Parent root = loader.load();
         //Creates a parent object from the draw.fxml file using the static FXMLLoader.load method
         //Parent root = FXMLLoader.load(getClass().getResource("draw.fxml"));
         primaryStage.setTitle("Draw Shape");    //Sets the title of the initial window
-        primaryStage.setScene(new Scene(root, 300, 275));   //Creates a new scene that is 300p x 275p
+        Scene scene = new Scene(root, 300, 275);    //Creates a new scene that is 300p x 275p
+        primaryStage.setScene(scene);
+        //The parameters window and the mesh generators are loaded once the window has been painted
+        Startup.afterFirstFrame(scene, Startup::firstFrame);
         primaryStage.show();    //Shows the window the user
     }
 
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshAdapter.java
+ * Class Name: Draw.MeshAdapter
+ * Last Modified: 10/18/26, 4:05 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.MeshData;
+import javafx.scene.paint.Material;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+/*
+ * The MeshAdapter class turns the raw buffers of the geometry package into JavaFX objects.
+ * It is the only place where Draw.Geometry meets the scene graph.
+ */
+public final class MeshAdapter {
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private MeshAdapter() {
+    }
+
+    /*
+     * Copies the raw mesh buffers, and the smoothing groups if any, into a new JavaFX TriangleMesh
+     */
+    public static TriangleMesh toTriangleMesh(MeshData data) {
+        TriangleMesh mesh = new TriangleMesh();
+        mesh.getPoints().setAll(data.getPoints());
+        mesh.getTexCoords().setAll(data.getTexCoords());
+        mesh.getFaces().setAll(data.getFaces());
+        mesh.getFaceSmoothingGroups().setAll(data.getSmoothingGroups());
+        return mesh;
+    }
+
+    /*
+     * Creates a MeshView showing the mesh with the given material
+     */
+    public static MeshView toMeshView(MeshData data, Material material) {
+        MeshView view = new MeshView(toTriangleMesh(data));
+        view.setMaterial(material);
+        return view;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshInstances.java
+ * Class Name: Draw.MeshInstances
+ * Last Modified: 10/18/26, 3:10 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.MeshKey;
+import Draw.Geometry.ShapeParameters;
+import Draw.Geometry.Shapes;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.TriangleMesh;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * The MeshInstances class lets identical shapes share one TriangleMesh and one material.
+ * Every MeshView of the same MeshKey references the same mesh, the views only differ in their transforms,
+ * so the mesh data on the heap does not grow with the number of copies of a shape.
+ * The meshes are held weakly, a mesh is dropped once no view shows it anymore.
+ * The shared meshes and the shared material must never be modified,
+ * a shape that changes its mesh in place has to create its own with MeshAdapter.
+ * Must be used from the JavaFX application thread.
+ */
+public final class MeshInstances {
+    private static final PhongMaterial MATERIAL = new PhongMaterial(Color.GRAY);  //Shared by all shapes
+    private static final Map<MeshKey, Instance> MESHES = new HashMap<>();
+    private static final ReferenceQueue<TriangleMesh> CLEARED = new ReferenceQueue<>();
+
+    /*
+     * Weak reference to a shared mesh that remembers its key, so it can be removed once cleared
+     */
+    private static final class Instance extends WeakReference<TriangleMesh> {
+        private final MeshKey key;
+
+        private Instance(MeshKey key, TriangleMesh mesh) {
+            super(mesh, CLEARED);
+            this.key = key;
+        }
+    }
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private MeshInstances() {
+    }
+
+    /*
+     * Returns the gray material shared by all shapes
+     */
+    public static PhongMaterial material() {
+        return MATERIAL;
+    }
+
+    /*
+     * Returns the shared mesh for the key, creating it from the mesh caches if no view holds it anymore
+     */
+    public static TriangleMesh mesh(MeshKey key) {
+        TriangleMesh mesh = peek(key);
+        return mesh != null ? mesh : adopt(key, MeshAdapter.toTriangleMesh(Shapes.mesh(key)));
+    }
+
+    /*
+     * Returns the shared mesh for the key if a view still holds it, null otherwise.
+     * Never generates, so it is safe to call before deciding to generate on another thread.
+     */
+    public static TriangleMesh peek(MeshKey key) {
+        purge();
+        Instance instance = MESHES.get(key);
+        return instance == null ? null : instance.get();
+    }
+
+    /*
+     * Shares a mesh built for the key on another thread, see MeshLoader.
+     * Returns the mesh that is shared from now on, the one already shared if there is one.
+     */
+    public static TriangleMesh adopt(MeshKey key, TriangleMesh mesh) {
+        TriangleMesh shared = peek(key);
+        if (shared != null) {
+            return shared;
+        }
+        MESHES.put(key, new Instance(key, mesh));
+        return mesh;
+    }
+
+    /*
+     * Returns the shared mesh of a shape at the given screen scale
+     */
+    public static TriangleMesh mesh(String shape, ShapeParameters p, double scale) {
+        return mesh(Shapes.key(shape, p, scale));
+    }
+
+    /*
+     * Creates a new view of the shared mesh with the shared material
+     */
+    public static MeshView view(String shape, ShapeParameters p, double scale) {
+        MeshView view = new MeshView(mesh(shape, p, scale));
+        view.setMaterial(MATERIAL);
+        return view;
+    }
+
+    /*
+     * Number of distinct meshes currently shared
+     */
+    public static int getMeshCount() {
+        purge();
+        return MESHES.size();
+    }
+
+    /*
+     * Removes the entries of meshes that were garbage collected
+     */
+    private static void purge() {
+        Instance cleared;
+        while ((cleared = (Instance) CLEARED.poll()) != null) {
+            if (MESHES.get(cleared.key) == cleared) {
+                MESHES.remove(cleared.key);     //Not replaced by a newer mesh
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MeshLoader.java
+ * Class Name: Draw.MeshLoader
+ * Last Modified: 10/18/26, 10:00 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.MeshData;
+import Draw.Geometry.MeshKey;
+import Draw.Geometry.ShapeParameters;
+import Draw.Geometry.Shapes;
+import javafx.application.Platform;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/*
+ * The MeshLoader class generates meshes off the JavaFX application thread.
+ * The mesh data and the TriangleMesh are built on a dedicated pool of generator threads,
+ * a TriangleMesh that is not in a scene yet may be filled on any thread.
+ * Only the result is handed back with Platform.runLater, where it is attached to its view.
+ * Every load returns a Job, cancelling it interrupts the generator and drops the result,
+ * so a shape that was replaced in the meantime is never attached.
+ * Large shapes are refined progressively, a coarse mesh is shown first and replaced by finer ones.
+ */
+public final class MeshLoader {
+    /*
+     * Two threads, so a newer request does not wait behind a cancelled one that is still running
+     */
+    private static final ExecutorService GENERATORS = Executors.newFixedThreadPool(2, new NamedThreads());
+    /*
+     * Detail of the meshes shown before the full one, as fractions of the screen scale, coarse to fine.
+     * Set with -Ddraw.refine=0.0625,0.25, an empty list shows the full detail straight away.
+     */
+    private static final double[] REFINEMENT = parseLevels(System.getProperty("draw.refine", "0.0625,0.25"));
+    private static long delivered;  //Generation time of the result being handed over, JavaFX thread only
+
+    /*
+     * A load in progress
+     */
+    public static final class Job {
+        private volatile boolean cancelled;
+        private volatile boolean done;
+        private Future<?> future;
+
+        private Job() {
+        }
+
+        /*
+         * Drops the result, it is not handed to the JavaFX thread anymore.
+         * The generator is interrupted, it stops between the steps of the generation.
+         */
+        public void cancel() {
+            cancelled = true;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /*
+         * True once the result was handed over, or the load failed
+         */
+        public boolean isDone() {
+            return done;
+        }
+    }
+
+    /*
+     * Names the generator threads and keeps them from holding the JVM open
+     */
+    private static final class NamedThreads implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "mesh-generator-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private MeshLoader() {
+    }
+
+    /*
+     * Runs the work on a generator thread and calls then with its result on the JavaFX thread.
+     * failed is called on the JavaFX thread instead if the work throws.
+     * Neither is called once the job is cancelled.
+     */
+    public static <T> Job submit(Callable<T> work, Consumer<T> then, Consumer<Throwable> failed) {
+        Job job = new Job();
+        job.future = GENERATORS.submit(() -> {
+            T result;
+            long start = System.nanoTime();
+            try {
+                result = work.call();
+            } catch (Throwable e) {
+                if (!job.cancelled) {
+                    Platform.runLater(() -> {
+                        if (!job.cancelled) {   //May have been cancelled since
+                            job.done = true;
+                            failed.accept(e);
+                        }
+                    });
+                }
+                return;
+            }
+            long nanos = System.nanoTime() - start;
+            Platform.runLater(() -> {
+                if (!job.cancelled) {
+                    job.done = true;
+                    deliver(nanos, () -> then.accept(result));
+                }
+            });
+        });
+        return job;
+    }
+
+    /*
+     * Nanoseconds the generator thread spent on the result being handed over.
+     * Only meaningful inside a then callback, 0 for a mesh that was already shared.
+     */
+    public static long getGenerationNanos() {
+        return delivered;
+    }
+
+    /*
+     * Calls the handover with getGenerationNanos() returning the generation time
+     */
+    private static void deliver(long nanos, Runnable handover) {
+        delivered = nanos;
+        try {
+            handover.run();
+        } finally {
+            delivered = 0;
+        }
+    }
+
+    /*
+     * Gets the shared mesh of the key and calls then with it on the JavaFX thread, or failed on error.
+     * A mesh still shared by another view is handed over right away, the others are generated.
+     * Must be called on the JavaFX thread.
+     */
+    public static Job load(MeshKey key, Consumer<TriangleMesh> then, Consumer<Throwable> failed) {
+        TriangleMesh shared = MeshInstances.peek(key);
+        if (shared != null) {
+            Job job = new Job();
+            job.done = true;
+            then.accept(shared);
+            return job;
+        }
+        return submit(() -> generate(key), mesh -> then.accept(MeshInstances.adopt(key, mesh)), failed);
+    }
+
+    /*
+     * Returns the keys of the meshes to show for a shape, coarse to fine and ending with the full detail.
+     * Starts at the finest mesh still shared by another view, nothing coarser is worth showing.
+     * Levels that tessellate the same as the next one are left out, the cube only has one.
+     */
+    public static List<MeshKey> levels(String shape, ShapeParameters p, double scale) {
+        List<MeshKey> keys = new ArrayList<>();
+        for (double fraction : REFINEMENT) {
+            MeshKey key = Shapes.key(shape, p, scale * fraction);
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        MeshKey full = Shapes.key(shape, p, scale);
+        keys.remove(full);
+        keys.add(full);
+        for (int i = keys.size() - 1; i > 0; i--) {
+            if (MeshInstances.peek(keys.get(i)) != null) {
+                return new ArrayList<>(keys.subList(i, keys.size()));
+            }
+        }
+        return keys;
+    }
+
+    /*
+     * Generates the meshes of the keys one after the other on a generator thread,
+     * calling then on the JavaFX thread with each of them as soon as it is ready.
+     * Stops at the first failure, failed is called with it.
+     * Must be called on the JavaFX thread.
+     */
+    public static Job refine(List<MeshKey> keys, Consumer<TriangleMesh> then, Consumer<Throwable> failed) {
+        List<MeshKey> pending = new ArrayList<>(keys);
+        Job job = new Job();
+        while (!pending.isEmpty() && MeshInstances.peek(pending.get(0)) != null) {
+            then.accept(MeshInstances.peek(pending.remove(0)));   //Shared already, handed over right away
+        }
+        if (pending.isEmpty()) {
+            job.done = true;
+            return job;
+        }
+        job.future = GENERATORS.submit(() -> {
+            for (int i = 0; i < pending.size(); i++) {
+                MeshKey key = pending.get(i);
+                boolean last = i == pending.size() - 1;
+                TriangleMesh mesh;
+                long start = System.nanoTime();
+                try {
+                    mesh = generate(key);
+                } catch (Throwable e) {
+                    if (!job.cancelled) {
+                        Platform.runLater(() -> {
+                            if (!job.cancelled) {   //May have been cancelled since
+                                job.done = true;
+                                failed.accept(e);
+                            }
+                        });
+                    }
+                    return;
+                }
+                long nanos = System.nanoTime() - start;
+                Platform.runLater(() -> {
+                    if (!job.cancelled) {
+                        job.done = last;
+                        deliver(nanos, () -> then.accept(MeshInstances.adopt(key, mesh)));
+                    }
+                });
+                if (job.cancelled) {
+                    return;
+                }
+            }
+        });
+        return job;
+    }
+
+    /*
+     * Parses the comma separated refinement levels, keeping the fractions between 0 and 1 in ascending order
+     */
+    private static double[] parseLevels(String levels) {
+        return Arrays.stream(levels.split(","))
+                .map(String::trim)
+                .filter(level -> !level.isEmpty())
+                .mapToDouble(level -> {
+                    try {
+                        return Double.parseDouble(level);
+                    } catch (NumberFormatException e) {
+                        return -1;  //Ignored like the other invalid levels
+                    }
+                })
+                .filter(fraction -> fraction > 0 && fraction < 1)
+                .sorted()
+                .toArray();
+    }
+
+    /*
+     * Generates the mesh data and fills a TriangleMesh with it, checking for a cancel in between
+     */
+    static TriangleMesh generate(MeshKey key) throws InterruptedException {
+        MeshData data = Shapes.mesh(key);
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Cancelled");
+        }
+        return MeshAdapter.toTriangleMesh(data);
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: MultiShapeScene.java
+ * Class Name: Draw.MultiShapeScene
+ * Last Modified: 10/19/26, 11:05 AM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.MeshKey;
+import Draw.Geometry.ShapeParameters;
+import Draw.Geometry.Shapes;
+import javafx.geometry.Point3D;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.Scene;
+import javafx.scene.shape.Circle;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.Polygon;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.Rotate;
+
+import java.util.Random;
+
+/*
+ * The MultiShapeScene class shows many copies of the chosen shape spinning in one window.
+ * The shapes are laid out on a grid in a single Group and are all driven by one SpinClock
+ * instead of one RotateTransition each.
+ * The 3D shapes share one mesh and one material, tessellated for their small size on screen.
+ * The 2D shapes are not nodes at all, they are drawn into one ShapeCanvas on every pulse.
+ * -Ddraw.canvas=false goes back to one node per 2D shape.
+ */
+public final class MultiShapeScene {
+    public static final int DEFAULT_COUNT = 1000;   //Used when no count is entered
+    public static final int MAX_COUNT = 100_000;
+    private static final double SIZE = 600;     //Width and height of the drawing area
+    private static final double SHAPE_SIZE = 300;   //Size of the drawing area of a single shape
+    private static final boolean CANVAS = Boolean.parseBoolean(System.getProperty("draw.canvas", "true"));
+
+    private final Scene scene;
+    private final SpinClock clock;
+
+    private MultiShapeScene(Scene scene, SpinClock clock) {
+        this.scene = scene;
+        this.clock = clock;
+    }
+
+    /*
+     * Returns the key of the mesh shared by the copies of a 3D shape, null for the 2D shapes.
+     * The mesh can be generated off the JavaFX thread, see MeshLoader, and passed to create().
+     */
+    public static MeshKey meshKey(String shape, ShapeParameters p, int count) {
+        return isFlat(shape) ? null : Shapes.key(shape, p, scale(count));
+    }
+
+    /*
+     * Builds a scene with count copies of the shape, generating the shared mesh if needed.
+     * The clock is not started, ShapeWindows starts it when the window is shown.
+     */
+    public static MultiShapeScene create(String shape, ShapeParameters p, int count) {
+        return create(shape, p, count, null);
+    }
+
+    /*
+     * Builds a scene with count copies of the shape.
+     * mesh is the mesh of meshKey() for a 3D shape, it is taken from MeshInstances when null.
+     * The clock is not started, ShapeWindows starts it when the window is shown.
+     */
+    public static MultiShapeScene create(String shape, ShapeParameters p, int count, TriangleMesh mesh) {
+        int columns = columns(count);
+        double cell = SIZE / columns;
+        double scale = scale(count);
+        if (CANVAS && ShapeCanvas.supports(shape)) {
+            return createCanvas(shape, p, count, columns, cell, scale);
+        }
+        Point3D axis = axis(shape);
+        Factory factory = factory(shape, p, scale, mesh);
+        Node[] nodes = new Node[count];
+        Rotate[] rotates = new Rotate[count];
+        double[] offsets = new double[count];
+        Random random = new Random(count);  //Same layout every time for the same count
+        for (int i = 0; i < count; i++) {
+            Node node = factory.create();
+            rotates[i] = new Rotate(0, axis);
+            node.getTransforms().add(0, rotates[i]);    //Spin outside of any tilt from the factory
+            node.setScaleX(scale);
+            node.setScaleY(scale);
+            node.setScaleZ(scale);
+            node.setTranslateX((i % columns + 0.5) * cell);
+            node.setTranslateY((i / columns + 0.5) * cell);
+            nodes[i] = node;
+            offsets[i] = random.nextDouble() * 10;
+        }
+        Group content = new Group(nodes);
+        Scene scene = new Scene(new Group(content), SIZE, SIZE, true);
+        scene.setCamera(new PerspectiveCamera(false));
+        ShapeWindows.fitToWindow(content, scene, SIZE);
+        ScenePicker.install(scene, content, true);  //Picks through a BVH instead of testing every node
+        return new MultiShapeScene(scene, new SpinClock(rotates, offsets));
+    }
+
+    /*
+     * Builds a scene with count copies of a 2D shape drawn into a single canvas
+     */
+    private static MultiShapeScene createCanvas(String shape, ShapeParameters p, int count, int columns,
+                                                double cell, double scale) {
+        ShapeCanvas canvas = new ShapeCanvas(shape, count, SIZE, SIZE);
+        double halfWidth = switch (shape) {
+            case ("circle") -> p.getRadius();
+            case ("rectangle") -> p.getWidth() / 2;
+            default -> p.getLength() / 2;
+        };
+        double halfHeight = shape.equals("circle") ? p.getRadius() : p.getLength() / 2;
+        double[] offsets = new double[count];
+        Random random = new Random(count);  //Same layout as the nodes for the same count
+        for (int i = 0; i < count; i++) {
+            canvas.set(i, (i % columns + 0.5) * cell, (i / columns + 0.5) * cell, halfWidth * scale,
+                    halfHeight * scale);
+            offsets[i] = random.nextDouble() * 10;
+        }
+        Group content = new Group(canvas.getCanvas());
+        Scene scene = new Scene(new Group(content), SIZE, SIZE);
+        ShapeWindows.fitToWindow(content, scene, SIZE);
+        return new MultiShapeScene(scene, new SpinClock(offsets, canvas));
+    }
+
+    private static int columns(int count) {
+        return (int) Math.ceil(Math.sqrt(count));
+    }
+
+    /*
+     * Every shape is shrunk to fit in its cell
+     */
+    private static double scale(int count) {
+        return SIZE / columns(count) / SHAPE_SIZE;
+    }
+
+    private static boolean isFlat(String shape) {
+        return switch (shape) {
+            case ("circle"), ("square"), ("triangle"), ("rectangle") -> true;
+            default -> false;
+        };
+    }
+
+    public Scene getScene() {
+        return scene;
+    }
+
+    public SpinClock getClock() {
+        return clock;
+    }
+
+    /*
+     * Creates one node of the shape, centered on the origin
+     */
+    private interface Factory {
+        Node create();
+    }
+
+    /*
+     * Returns a factory for the shape
+     */
+    private static Factory factory(String shape, ShapeParameters p, double scale, TriangleMesh mesh) {
+        double len = p.getLength();
+        double wit = p.getWidth();
+        double rad = p.getRadius();
+        return switch (shape) {
+            case ("circle") -> () -> new Circle(rad);
+            case ("square") -> () -> new Rectangle(-len / 2, -len / 2, len, len);
+            case ("triangle") -> () -> new Polygon(-len / 2, len / 2, len / 2, len / 2, len / 2, -len / 2);
+            case ("rectangle") -> () -> new Rectangle(-wit / 2, -len / 2, wit, len);
+            default -> meshFactory(shape, mesh != null ? mesh : MeshInstances.mesh(shape, p, scale));
+        };
+    }
+
+    /*
+     * Returns a factory for a 3D shape, every node shares the same mesh and material
+     */
+    private static Factory meshFactory(String shape, TriangleMesh mesh) {
+        return () -> {
+            MeshView view = new MeshView(mesh);
+            view.setMaterial(MeshInstances.material());
+            if (shape.equals("cone")) {
+                view.getTransforms().add(new Rotate(90, Rotate.X_AXIS));    //Stands the cone up, like drawCone()
+            }
+            return view;
+        };
+    }
+
+    /*
+     * Returns the axis each shape spins around, the same as in ParametersController
+     */
+    private static Point3D axis(String shape) {
+        return switch (shape) {
+            case ("circle"), ("square"), ("triangle"), ("rectangle") -> Rotate.Y_AXIS;
+            case ("sphere") -> Rotate.Z_AXIS;
+            default -> Rotate.X_AXIS;
+        };
+    }
+}
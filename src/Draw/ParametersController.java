@@ -18,6 +18,10 @@ package Draw;
  * Imports needed for JavaFX and animations as well as creating shapes.
  */
 
+import Draw.Geometry.MeshData;
+import Draw.Geometry.MeshKey;
+import Draw.Geometry.ShapeParameters;
+import Draw.Geometry.Shapes;
 import javafx.animation.Animation;
 import javafx.animation.RotateTransition;
 import javafx.fxml.FXML;
@@ -26,16 +30,22 @@ import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.PerspectiveCamera;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.GridPane;
-import javafx.scene.paint.Color;
-import javafx.scene.paint.PhongMaterial;
 import javafx.scene.shape.*;
 import javafx.scene.transform.Rotate;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /*
  * The ParametersController class represents the controller for the parameters.fxml file.
  * Its primary purpose it to serve as an event handler for the parameters.fxml window.
@@ -60,57 +70,68 @@ public class ParametersController {
     @FXML
     protected TextField minorRadius;
     @FXML
+    protected TextField count;
+    @FXML
     protected TextField choice;
     @FXML
+    protected CheckBox live;
+    @FXML
+    protected ProgressIndicator progress;
+    @FXML
     protected GridPane root;
     private double len, wit, rad, hgt, minRad, majRad;  //Stores the manipulated values
+    private ShapeParameters parameters; //All of the manipulated values, used by the geometry package
     private Group group = null; //Initialize variable to be safe
+    private LevelOfDetail.Rebuild detail = null;    //Rebuilds the drawn shape for a new screen size
+    private List<Animation> animations = new ArrayList<>(); //Animations of the shape being drawn
+    private LivePreview.Update update = null;   //Applies new dimensions to the drawn shape, for the live preview
+    private LiveMesh liveMesh = null;   //Mesh of the drawn shape when it is edited live
+    private LivePreview preview;    //Follows the last shape drawn with live preview checked
+    private MeshLoader.Job pending = null;  //Mesh being generated for the next shape, null when none
+    private TriangleMesh sharedMesh = null; //Shared mesh generated for the shape being drawn
+    private List<MeshKey> refinements = List.of();  //Finer meshes replacing sharedMesh once it is shown
+
+    /*
+     * Called by the FXMLLoader once the fields are injected
+     * Edits of the dimension fields are applied to the shape drawn with live preview checked
+     * Another shape or other dimensions cancel the mesh being generated, it is not wanted anymore
+     */
+    @FXML
+    public void initialize() {
+        preview = new LivePreview(() -> ShapeParameters.parse(length.getText(), width.getText(),
+                radius.getText(), height.getText(), minorRadius.getText()),
+                length, width, radius, height, minorRadius);
+        choice.textProperty().addListener(observable -> {   //Another shape was chosen
+            preview.stop();
+            cancelGeneration();
+        });
+        for (TextField field : new TextField[]{length, width, radius, height, minorRadius}) {
+            field.textProperty().addListener(observable -> cancelGeneration());
+        }
+    }
 
     /*
      * Method to get the users input.
      * Checks for empty strings and sets the value to 0.
      * Normalizes data to prevent clipping
+     * The parsing and normalization rules live in ShapeParameters
      */
     private void getFields() {
-        if (length.getText().matches("^[0-9]+([,.][0-9]+)?$")) {
-            len = Double.parseDouble(length.getText()); //Get the length, convert to double
-        } else {
-            len = 0;
-        }
-        if (width.getText().matches("^[0-9]+([,.][0-9]+)?$")) {
-            wit = Double.parseDouble(width.getText());  //Get the width, convert to double
-        } else {
-            wit = 0;
-        }
-        if (radius.getText().matches("^[0-9]+([,.][0-9]+)?$")) {
-            rad = Double.parseDouble(radius.getText()); //Get the radius, convert to double
-        } else {
-            rad = 0;
-        }
-        if (height.getText().matches("^[0-9]+([,.][0-9]+)?$")) {
-            hgt = Double.parseDouble(height.getText()); //Get the height, convert to double
-        } else {
-            hgt = 0;
-        }
-        if (minorRadius.getText().matches("^[0-9]+([,.][0-9]+)?$")) {
-            minRad = Double.parseDouble(minorRadius.getText()); //Get the minor radius
-        } else {
-            minRad = 0;
-        }
-        majRad = rad;   //Separate value to manipulate for the torus
-        //Scales the values, does NOT preserve ratios
-        len = 125 + (125 * (((len / 125.0)) - (int) (len / 125)));
-        wit = 125 + (125 * (((wit / 125.0)) - (int) (wit / 125)));
-        hgt = 125 + (125 * (((hgt / 125.0)) - (int) (hgt / 125)));
-        rad = 75 + (75 * (((rad / 75.0)) - (int) (rad / 75.0)));
-        majRad = 37.5 + (37.5 * (((majRad / 37.5)) - (int) (majRad / 37.5)));
-        minRad = 37.5 + (37.5 * (((minRad / 37.5)) - (int) (minRad / 37.5)));
+        parameters = ShapeParameters.parse(length.getText(), width.getText(),
+                radius.getText(), height.getText(), minorRadius.getText());
+        len = parameters.getLength();
+        wit = parameters.getWidth();
+        rad = parameters.getRadius();
+        hgt = parameters.getHeight();
+        majRad = parameters.getMajorRadius();   //Separate value for the torus
+        minRad = parameters.getMinorRadius();
     }
 
     /*
      * Anaimates the provided shape around the provided axis
      * Takes any Node or subclass as an argument, allows rotation of both 2d and 3d shapes
      * The axis can either be rotation vector or using Rotate.CONSTANT
+     * The animation is kept so it can be stopped when the window closes
      */
     private void animateShape(Node shape, Point3D axis) {
         RotateTransition rt = new RotateTransition(Duration.seconds(5), shape); //Creates the transition, lasts 5 sec
@@ -119,6 +140,7 @@ public class ParametersController {
         rt.setToAngle(360); //Go 360 degrees around
         rt.setAutoReverse(true);    //When finished, repeat in reverse
         rt.setAxis(axis);   //Rotate around the provided axis
+        animations.add(rt); //Stopped by ShapeWindows when the window closes
         rt.play();  //Play the animation
     }
 
@@ -132,6 +154,7 @@ public class ParametersController {
         c.setCenterX(150);  //Center X
         c.setCenterY(150);  //Center Y
         group = new Group(c);   //Add the shape to the group that is ultimately added
+        update = p -> c.setRadius(p.getRadius());
         animateShape(c, Rotate.Y_AXIS); //Rotate around the Y axis
     }
 
@@ -182,109 +205,40 @@ public class ParametersController {
 
     /*
      * Draws a sphere on the screen
-     * Uses the built in sphere method
+     * The sphere is built by the geometry package, the same mesh the batch mode and the export produce
+     * The number of segments follows the size of the sphere on screen
      */
     private void drawSphere() {
-        Sphere s = new Sphere();    //Creates a sphere
-        s.setRadius(rad);   //Sets the radius
-        s.setLayoutX(150);  //Center X
-        s.setLayoutY(150);  //Center Y
-        group = new Group(s);   //Add to the group
-        animateShape(s, Rotate.Z_AXIS); //Rotate around the z axis.  Its a sphere so you can't tell
+        MeshView view = meshView(); //Gray material
+        view.setLayoutX(150);   //Center X
+        view.setLayoutY(150);   //Center Y
+        group = new Group(view);    //Add to the group
+        animateShape(view, Rotate.Z_AXIS); //Rotate around the z axis.  Its a sphere so you can't tell
     }
 
     /*
      * Draws a cube on the screen
-     * Uses the built in box method
+     * The box mesh is built by the geometry package and shared by all cubes of the same size
      */
     private void drawCube() {
-        Box b = new Box();  //Creates a new box
-        b.setWidth(len);    //Sets width to be height and length
-        b.setHeight(len);   //Sets height to be width and length
-        b.setDepth(len);    //Sets the depth to be the width and height
+        MeshView b = new MeshView(sharedMesh); //Shared mesh
+        b.setMaterial(MeshInstances.material());    //Gray material
         b.setLayoutX(150);  //Centers the X
         b.setLayoutY(150);  //Centers the Y
-        b.setMaterial(new PhongMaterial(Color.GRAY));   //Sets material to be gray
         group = new Group(b);   //Adds the cube to the group
         animateShape(b, Rotate.X_AXIS); //Rotate the cube around the cube
     }
 
     /*
      * Draws a cone on the screen
-     * Code can be quickly modifiable to work with a truncated cone
-     * Math and inspiration from:
-     * https://stackoverflow.com/questions/32392456/how-to-create-hollow-cylinder-and-truncated-cone-with-javafx
+     * The cone, including its base, is built by the geometry package
+     * The number of segments follows the size of the cone on screen
+     * Cones of the same size and tessellation share one mesh
      */
     private void drawCone() {
         Group cone = new Group();   //Create a group for the cone
-        int rounds = 360;   //Say that we want to draw all 360 degrees
-        double r1 = rad;    //Lower radius
-        double r2 = 0.0;    //Upper radius
-        double h = hgt;     //Height of cone between radi
-        PhongMaterial material = new PhongMaterial(Color.GRAY); //Defines the color of the cone as Gray
-        float[] points = new float[rounds * 12];    //Creates an array of 'points' for the mesh
-        float[] textCoords = {                      //Create the texture coordinates
-                0.5f, 0,
-                0, 1,
-                1, 1
-        };
-        int[] faces = new int[rounds * 12];     //Create an array for the faces
-        //Iterate over the array and set the values to be the appropriate location on the cone
-        //All values must be float, so casting happens
-        for (int i = 0; i < rounds; i++) {
-            int index = i * 12;
-            points[index] = (float) (Math.cos(Math.toRadians(i)) * r2);
-            points[index + 1] = (float) (Math.sin(Math.toRadians(i)) * r2);
-            points[index + 2] = (float) (h / 2);
-            points[index + 3] = (float) (Math.cos(Math.toRadians(i)) * r1);
-            points[index + 4] = (float) (Math.sin(Math.toRadians(i)) * r1);
-            points[index + 5] = (float) (-h / 2);
-            points[index + 6] = (float) (Math.cos(Math.toRadians(i + 1)) * r1);
-            points[index + 7] = (float) (Math.sin(Math.toRadians(i + 1)) * r1);
-            points[index + 8] = (float) (-h / 2);
-            points[index + 9] = (float) (Math.cos(Math.toRadians(i + 1)) * r2);
-            points[index + 10] = (float) (Math.sin(Math.toRadians(i + 1)) * r2);
-            points[index + 11] = (float) (h / 2);
-        }
-        //Sets the face array with the appropriate value
-        for (int i = 0; i < rounds; i++) {
-            int index = i * 12;
-            faces[index] = i * 4;
-            faces[index + 1] = 0;
-            faces[index + 2] = i * 4 + 1;
-            faces[index + 3] = 1;
-            faces[index + 4] = i * 4 + 2;
-            faces[index + 5] = 2;
-            faces[index + 6] = i * 4;
-            faces[index + 7] = 0;
-            faces[index + 8] = i * 4 + 2;
-            faces[index + 9] = 1;
-            faces[index + 10] = i * 4 + 3;
-            faces[index + 11] = 2;
-        }
-        //Creates a new Triangle mesh and adds the points, faces, and texture coordinates
-        TriangleMesh mesh = new TriangleMesh();
-        mesh.getPoints().addAll(points);
-        mesh.getTexCoords().addAll(textCoords);
-        mesh.getFaces().addAll(faces);
-        //Creates the lower Cylinder
-        Cylinder c1 = new Cylinder(r1, 0.1);
-        c1.setMaterial(material);
-        c1.setTranslateZ(-h / 2);
-        c1.setRotationAxis(Rotate.X_AXIS);
-        c1.setRotate(90);
-        //The upper cylinder
-        Cylinder c2 = new Cylinder(r2, 0.1);
-        c2.setMaterial(material);
-        c2.setTranslateZ(h / 2);
-        c2.setRotationAxis(Rotate.X_AXIS);
-        c2.setRotate(90);
-        //Creates a MeshView, adds the mesh to the view
-        MeshView meshView = new MeshView();
-        meshView.setMesh(mesh);
-        meshView.setMaterial(material); //Sets material to be Gray
+        MeshView meshView = meshView(); //Material is Gray
         cone.getChildren().addAll(meshView);    //Add mesh to the cone group
-        cone.getChildren().addAll(c1);          //Adds the lower cylinder to the cone group
         Rotate rotate = new Rotate(90, Rotate.X_AXIS);  //Rotate the cone 90 degrees
         cone.getTransforms().add(rotate);   //Perform the rotation
         cone.setLayoutX(150);   //Center X
@@ -295,135 +249,133 @@ public class ParametersController {
 
     /*
      * Draws a cylinder on the screen
-     * Uses the built in Cylinder object
+     * The cylinder, including its caps, is built by the geometry package
+     * The number of segments follows the size of the cylinder on screen
      */
     private void drawCylinder() {
-        Cylinder cy = new Cylinder();   //Creates the cylinder
-        cy.setRadius(rad);  //Sets radius
-        cy.setHeight(hgt);  //Sets the height
-        cy.setLayoutX(150); //Center X
-        cy.setLayoutY(150); //Center Y
-        cy.setMaterial(new PhongMaterial(Color.GRAY));  //Set material to be Gray
-        group = new Group(cy);  //Add cylinder to the group
-        animateShape(cy, Rotate.X_AXIS);    //Rotate about X axis
+        MeshView view = meshView(); //Gray material
+        view.setLayoutX(150);   //Center X
+        view.setLayoutY(150);   //Center Y
+        group = new Group(view);  //Add cylinder to the group
+        animateShape(view, Rotate.X_AXIS);    //Rotate about X axis
     }
 
     /*
      * Draws a torus on the screen
      * Works for all 3 types of tori
-     * Uses a msh of 128x64 triangles.
-     * This provides acceptable smoothness for the rendered size.
-     * Increasing mesh density requires more resources.
-     * Torus Math from:
-     * http://www.lagers.org.uk/javafx/toroidclass.html
+     * The mesh density follows the size of the torus on screen,
+     * 128x64 triangles at the default window size.
+     * The mesh itself is built by the geometry package directly into primitive arrays.
+     * Tori of the same size and tessellation share one mesh.
      */
     private void drawTorus() {
-        int ringSegments = 128;
-        int tubeSegments = 64;
-        float majRadius = (float) majRad;   //Converts the radius to a float
-        float minRadius = (float) minRad;   //Convers the minor radius to a float
-        float zeroPos = (float) Math.toRadians(0); //Zero Angle
-        int ringSteps = ringSegments + 1; //Convenient for the math
-        int tubeSteps = tubeSegments + 1; //Convenient for the math
-
-        TriangleMesh mesh = new TriangleMesh();
-        //Calculate the Vertices
-        Point3D[][] cord = new Point3D[ringSteps][tubeSteps];
-        float ringDelta = (float) (2 * Math.PI / ringSegments);
-        float tubeDelta = (float) (2 * Math.PI / tubeSegments);
-        //Z=0 Plane points
-        for (int t = 0; t < tubeSteps; t++) {
-            float angle = zeroPos + t * tubeDelta;
-            cord[0][t] = new Point3D(
-                    majRadius + minRadius * Math.cos(angle),
-                    minRadius * Math.sin(angle),
-                    0
-            );
-        }
-        //Calculate the rest of the points
-        for (int r = 1; r < ringSteps; r++) {
-            float angle = r * ringDelta;
-            float sinA = (float) Math.sin(angle);
-            float cosA = (float) Math.cos(angle);
-            for (int t = 0; t < tubeSteps; t++) {
-                Point3D point0 = cord[0][t];
-                cord[r][t] = new Point3D(
-                        point0.getX() * cosA,
-                        point0.getY(),
-                        point0.getX() * sinA
-                );
-            }
-        }
-        //Convert to 1d array
-        float[] points = new float[ringSteps * tubeSteps * 3];
-        int i = 0;
-        for (int t = 0; t < tubeSteps; t++) {
-            for (int r = 0; r < ringSteps; r++) {
-                points[i++] = (float) cord[r][t].getX();
-                points[i++] = (float) cord[r][t].getY();
-                points[i++] = (float) cord[r][t].getZ();
-            }
-        }
-        mesh.getPoints().setAll(points);
-        //Calculate the texture coordinates
-        float deltaU = (float) 1 / ringSegments;
-        float deltaV = (float) 1 / tubeSegments;
-
-        float[] uv = new float[ringSteps * tubeSteps * 2];
-        i = 0;
-        for (int t = 0; t < tubeSteps; t++) {
-            for (int r = 0; r < ringSteps; r++) {
-                uv[i++] = r * deltaU;
-                uv[i++] = t * deltaV;
-            }
-        }
-        mesh.getTexCoords().setAll(uv);
-
-        //Calculating the faces
-        i = 0;
-        int[] faces = new int[ringSegments * tubeSegments * 12];
-        for (int t = 0; t < tubeSegments; t++) {
-            for (int r = 0; r < ringSegments; r++) {
-                int iTopLeft = r + t * ringSteps;
-                int iBottomLeft = r + (t + 1) * ringSteps;
-                int iBottomRight = r + 1 + (t + 1) * ringSteps;
-                int iTopRight = r + 1 + t * ringSteps;
-                //Top Left Triangle, counterclockwise
-                faces[i++] = iTopLeft;
-                faces[i++] = iTopLeft;
-                faces[i++] = iBottomLeft;
-                faces[i++] = iBottomLeft;
-                faces[i++] = iTopRight;
-                faces[i++] = iTopRight;
-                //Bottom Right Triangle, counterclockwise
-                faces[i++] = iBottomLeft;
-                faces[i++] = iBottomLeft;
-                faces[i++] = iBottomRight;
-                faces[i++] = iBottomRight;
-                faces[i++] = iTopRight;
-                faces[i++] = iTopRight;
-            }
-        }
-        mesh.getFaces().setAll(faces);  //Add faces to the mesh
-        PhongMaterial material = new PhongMaterial(Color.GRAY); //Defines the material
-        MeshView view = new MeshView();
-        view.setMesh(mesh);
-        view.setMaterial(material);
+        MeshView view = meshView(); //Gray material
         view.setLayoutX(150);   //Center X
         view.setLayoutY(150);   //Center Y
         group = new Group(view);
         animateShape(view, Rotate.X_AXIS);  //Rotate around the X axis
     }
 
+    /*
+     * Creates the view of a shape built by the geometry package and sets its level of detail.
+     * Normally the mesh is shared with every other shape of the same size.
+     * A coarse mesh is refined in the background, the finer meshes replace it in the view
+     * without touching the animation.
+     * The meshes of other levels of detail are generated in the background, the view keeps
+     * its current mesh until the new one is ready.
+     * With live preview checked the shape gets its own LiveMesh, its vertices are rewritten
+     * in place as the dimensions are edited.
+     */
+    private MeshView meshView() {
+        String shape = choice.getText();    //Kept for the level of detail, the choice changes
+        ShapeParameters p = parameters;
+        if (liveMesh == null) {
+            MeshView view = new MeshView(sharedMesh);   //Shared mesh
+            view.setMaterial(MeshInstances.material()); //Gray material
+            MeshLoader.Job[] rebuild = new MeshLoader.Job[1];   //The level of detail being generated
+            List<MeshKey> finer = refinements;
+            refinements = List.of();
+            if (!finer.isEmpty()) {
+                rebuild[0] = MeshLoader.refine(finer, mesh -> {
+                    if (rebuild[0] != null && view.getScene() == null) {
+                        rebuild[0].cancel();    //The window was closed
+                    } else {
+                        view.setMesh(mesh);
+                    }
+                }, e -> {
+                    //Keeps the coarser tessellation
+                });
+            }
+            detail = scale -> {
+                if (rebuild[0] != null) {
+                    rebuild[0].cancel();    //Resized again before it was ready
+                }
+                rebuild[0] = MeshLoader.load(Shapes.key(shape, p, scale), view::setMesh, e -> {
+                    //Keeps the current tessellation
+                });
+            };
+            return view;
+        }
+        MeshView view = new MeshView(liveMesh.getMesh());
+        view.setMaterial(MeshInstances.material());
+        detail = liveMesh::setScale;
+        update = liveMesh::setParameters;
+        return view;
+    }
+
     /*
      * Event handler for the draw shape button
+     * The meshes of the 3D shapes are generated on a MeshLoader thread while a progress
+     * indicator spins, the shape is drawn once its mesh is ready.
+     * Only the coarsest refinement level is waited for, so the shape shows up as fast whatever its size.
+     * A mesh still shared by another shape of the same size is drawn right away.
      */
     @FXML
     public void drawShape() {
+        cancelGeneration();     //Only the last request is drawn
         getFields();    //Populates the instance variables
-        Stage shapeView = new Stage();  //Creates a new window
+        String shape = choice.getText();
+        ShapeParameters p = parameters;
+        switch (shape) {
+            case ("sphere"), ("cube"), ("cone"), ("cylinder"), ("torus") -> {
+                if (live.isSelected() && !shape.equals("cube")) {
+                    pending = LiveMesh.load(shape, p, 1,
+                            edited -> draw(null, edited, MeshLoader.getGenerationNanos()), this::generationFailed);
+                } else {
+                    List<MeshKey> levels = MeshLoader.levels(shape, p, 1);
+                    List<MeshKey> finer = levels.subList(1, levels.size());
+                    pending = MeshLoader.load(levels.get(0), mesh -> {
+                        refinements = finer;
+                        draw(mesh, null, MeshLoader.getGenerationNanos());
+                    }, this::generationFailed);
+                }
+                if (pending.isDone()) {
+                    pending = null;  //The shape was drawn right away
+                } else {
+                    progress.setVisible(true);
+                }
+            }
+            default -> draw(null, null, 0);     //JavaFX builds the 2D shapes
+        }
+    }
+
+    /*
+     * Draws the chosen shape, on the JavaFX thread once its mesh is ready.
+     * mesh is the shared mesh of the shape, edited its mesh with live preview, both may be null.
+     * generationNanos is the time a MeshLoader thread spent on the mesh, shown by the overlay.
+     */
+    private void draw(TriangleMesh mesh, LiveMesh edited, long generationNanos) {
+        pending = null;
+        progress.setVisible(false);
+        sharedMesh = mesh;
+        liveMesh = edited;
+        detail = null;  //Only set by shapes with a tessellation
+        update = null;  //Only set by shapes that can be resized live
+        animations = new ArrayList<>();
+        long start = System.nanoTime(); //Measures the time to build the scene
+        long generated = Shapes.getGenerationNanos();
+        Stage shapeView = ShapeWindows.acquire();  //Reuses a closed window or creates a new one
         Scene shapeScene;   //Creates a new scene
-        PerspectiveCamera camera = new PerspectiveCamera(false);    //Creates a new camera to view shapes
         switch (choice.getText()) { //Switch based off of the users choice
             case ("circle") -> drawCircle();
             case ("square") -> drawSquare();
@@ -436,11 +388,168 @@ public class ParametersController {
             case ("torus") -> drawTorus();
             default -> group = new Group(new Label("No Shape Chosen")); //This should be unreachable
         }
-        shapeScene = new Scene(group, 300, 300);    //Creates a 300x300 scene with whatever shape is chosen
-        shapeScene.setCamera(camera);   //Sets the camera at the appropriate position (0,0,0)
-        shapeView.setScene(shapeScene); //Sets the window's sene
-        shapeView.setResizable(false);
-        shapeView.show();
+        shapeScene = buildScene();  //Creates a 300x300 scene with whatever shape is chosen
+        if (Shapes.NAMES.contains(choice.getText())) {
+            String shape = choice.getText();
+            ShapeParameters p = parameters;
+            //Right click to export, with the live dimensions if the shape is edited
+            ExportMenu.install(shapeView, shapeScene,
+                    () -> Shapes.mesh(shape, edited == null ? p : edited.getParameters(), 1));
+        }
+        long generation = Shapes.getGenerationNanos() - generated;
+        PerformanceOverlay.attach(shapeScene, generationNanos + generation,
+                System.nanoTime() - start - generation);    //F3 to show
+        show(shapeView, shapeScene);
+        if (live.isSelected() && update != null) {
+            preview.follow(shapeView, update);  //Keeps the parameters window open for edits
+        } else {
+            close();    //Closes the other window
+        }
+    }
+
+    /*
+     * Draws a mesh loaded from a file, through the same MeshView and animation path as the torus.
+     * The mesh is centered and scaled to fit the window whatever its units.
+     * loadNanos is the time spent reading the file, shown as the generation time by the overlay.
+     */
+    public void drawImported(MeshData mesh, long loadNanos) {
+        detail = null;  //Imported meshes have a fixed tessellation
+        update = null;
+        liveMesh = null;
+        animations = new ArrayList<>();
+        long start = System.nanoTime();
+        Stage shapeView = ShapeWindows.acquire();
+        MeshView view = MeshAdapter.toMeshView(mesh, MeshInstances.material());
+        fitMesh(view, mesh.getPoints());
+        Group holder = new Group(view); //The holder is animated, the view keeps its fitting transforms
+        holder.setLayoutX(150); //Center X
+        holder.setLayoutY(150); //Center Y
+        group = new Group(holder);
+        animateShape(holder, Rotate.X_AXIS);    //Rotate around the X axis, like the torus
+        Scene shapeScene = buildScene();
+        ExportMenu.install(shapeView, shapeScene, () -> mesh);
+        PerformanceOverlay.attach(shapeScene, loadNanos, System.nanoTime() - start);
+        show(shapeView, shapeScene);
+    }
+
+    /*
+     * Centers the mesh on the origin and scales it so it stays inside the window while it spins
+     */
+    private static void fitMesh(MeshView view, float[] points) {
+        if (points.length == 0) {
+            return;     //Nothing to fit
+        }
+        float[] min = {Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE};
+        float[] max = {-Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (int p = 0; p < points.length; p += 3) {
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], points[p + axis]);
+                max[axis] = Math.max(max[axis], points[p + axis]);
+            }
+        }
+        double dx = max[0] - min[0], dy = max[1] - min[1], dz = max[2] - min[2];
+        double radius = Math.sqrt(dx * dx + dy * dy + dz * dz) / 2;  //Bounding sphere, covers every rotation
+        double scale = radius > 0 ? 140 / radius : 1;
+        //Applied right to left, centered first and then scaled
+        view.getTransforms().addAll(new Scale(scale, scale, scale),
+                new Translate(-(min[0] + max[0]) / 2.0, -(min[1] + max[1]) / 2.0, -(min[2] + max[2]) / 2.0));
+    }
+
+    /*
+     * Creates the 300x300 scene for the shape in group, scaled to the window,
+     * picked by a ScenePicker and with its level of detail when the shape has one
+     */
+    private Scene buildScene() {
+        Group content = group;
+        Scene shapeScene = new Scene(new Group(content), 300, 300);
+        shapeScene.setCamera(new PerspectiveCamera(false)); //Sets the camera at the appropriate position (0,0,0)
+        ShapeWindows.fitToWindow(content, shapeScene, 300);
+        ScenePicker.install(shapeScene, content);   //Hover and click picks through a BVH
+        if (detail != null) {
+            //Swaps the meshes as the shape grows or shrinks on screen
+            LevelOfDetail.attach(shapeScene, content, 1, detail);
+        }
+        return shapeScene;
+    }
+
+    /*
+     * Shows the scene in the stage along with the animations of the shape
+     */
+    private void show(Stage shapeView, Scene shapeScene) {
+        ShapeWindows.show(shapeView, shapeScene, animations);  //Sets the window's scene and shows it
+        if (Startup.getMillis(Startup.FIRST_SHAPE) < 0) {
+            Startup.afterFirstFrame(shapeScene, () -> Startup.mark(Startup.FIRST_SHAPE));
+        }
+    }
+
+    /*
+     * Cancels the mesh being generated for Draw Shape, if any
+     */
+    private void cancelGeneration() {
+        if (pending != null) {
+            pending.cancel();
+            pending = null;
+        }
+        progress.setVisible(false);
+    }
+
+    /*
+     * Reports a mesh that could not be generated
+     */
+    private void generationFailed(Throwable e) {
+        pending = null;
+        progress.setVisible(false);
+        new Alert(Alert.AlertType.ERROR, "Could not generate the " + choice.getText() + ": " + e).show();
+    }
+
+    /*
+     * Event handler for the draw many button.
+     * Draws count copies of the shape in one window, all spun by a single SpinClock.
+     * The mesh shared by the copies of a 3D shape is generated on a MeshLoader thread first.
+     */
+    @FXML
+    public void drawMany() {
+        if (!Shapes.NAMES.contains(choice.getText())) {
+            return;     //This should be unreachable
+        }
+        cancelGeneration();     //Draw Many replaces the shape being generated
+        getFields();    //Populates the instance variables
+        int n = MultiShapeScene.DEFAULT_COUNT;
+        try {
+            n = Integer.parseInt(count.getText().trim());
+        } catch (NumberFormatException e) {
+            //Keeps the default count, like getFields() does for blank dimensions
+        }
+        n = Math.max(1, Math.min(n, MultiShapeScene.MAX_COUNT));
+        String shape = choice.getText();
+        ShapeParameters p = parameters;
+        int copies = n;
+        MeshKey key = MultiShapeScene.meshKey(shape, p, copies);
+        if (key == null) {
+            drawMany(shape, p, copies, null, 0);    //The 2D shapes have no mesh
+            return;
+        }
+        pending = MeshLoader.load(key, mesh -> drawMany(shape, p, copies, mesh, MeshLoader.getGenerationNanos()),
+                this::generationFailed);
+        if (pending.isDone()) {
+            pending = null;  //Drawn right away
+        } else {
+            progress.setVisible(true);
+        }
+    }
+
+    /*
+     * Builds and shows the scene of Draw Many, mesh is null for the 2D shapes.
+     * generationNanos is the time a MeshLoader thread spent on the mesh, shown by the overlay.
+     */
+    private void drawMany(String shape, ShapeParameters p, int copies, TriangleMesh mesh, long generationNanos) {
+        pending = null;
+        progress.setVisible(false);
+        long start = System.nanoTime();
+        MultiShapeScene many = MultiShapeScene.create(shape, p, copies, mesh);
+        PerformanceOverlay.attach(many.getScene(), generationNanos, System.nanoTime() - start);
+        Stage shapeView = ShapeWindows.acquire();
+        ShapeWindows.show(shapeView, many.getScene(), many.getClock());
         close();    //Closes the other window
     }
 
@@ -449,10 +558,19 @@ public class ParametersController {
      */
     @FXML
     public void close() {
+        stopPreview();
+        cancelGeneration();
         clearEntries();
         root.getScene().getWindow().hide();
     }
 
+    /*
+     * Stops applying edits to the last shape, must be called before the fields are cleared
+     */
+    public void stopPreview() {
+        preview.stop();
+    }
+
     /*
      * Clears all of the parameter fields
      */
@@ -462,5 +580,6 @@ public class ParametersController {
         width.setText("");
         height.setText("");
         minorRadius.setText("");
+        count.setText("");
     }
 }
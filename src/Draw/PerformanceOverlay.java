@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: PerformanceOverlay.java
+ * Class Name: Draw.PerformanceOverlay
+ * Last Modified: 10/18/26, 4:55 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.shape.Box;
+import javafx.scene.shape.Cylinder;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.Sphere;
+import javafx.scene.shape.TriangleMesh;
+
+import java.util.Locale;
+
+/*
+ * The PerformanceOverlay class measures how a shape window performs and can show the numbers on top of it.
+ * A pre layout pulse listener records the time between pulses into a rolling window of frames,
+ * kept as a histogram of 0.25 ms buckets so the percentiles are cheap and nothing is allocated per frame.
+ * The triangle and vertex counts are taken from the meshes in the scene when they are read.
+ * F3 toggles the overlay, -Ddraw.overlay=true shows it on every new window.
+ * The numbers are always collected and can be read with of(scene) for automated checks.
+ * Must be used from the JavaFX application thread.
+ */
+public final class PerformanceOverlay {
+    /*
+     * Shows the overlay when a window opens, -Ddraw.overlay=true
+     */
+    private static final boolean SHOW = Boolean.getBoolean("draw.overlay");
+    private static final String KEY = "Draw.PerformanceOverlay";   //Scene property key
+    private static final int WINDOW = 240;  //Frames in the rolling window, about 4 seconds
+    private static final long BUCKET_NANOS = 250_000;   //Width of a histogram bucket
+    private static final int BUCKETS = 400; //Up to 100 ms, longer frames land in the last bucket
+    private static final long REFRESH_NANOS = 500_000_000;  //The text is updated twice a second
+
+    private final Scene scene;
+    private final Label label = new Label();
+    private final long generationNanos; //Time spent generating the meshes of the shape
+    private final long buildNanos;  //Time spent building the rest of the scene graph
+    private final long[] frames = new long[WINDOW]; //Ring buffer of frame times
+    private final int[] histogram = new int[BUCKETS];   //Frame times of the ring buffer by bucket
+    private int next;   //Next slot of the ring buffer
+    private int count;  //Frames in the ring buffer
+    private long total; //Sum of the frame times in the ring buffer
+    private long lastPulse;
+    private long lastRefresh;
+
+    private PerformanceOverlay(Scene scene, long generationNanos, long buildNanos) {
+        this.scene = scene;
+        this.generationNanos = generationNanos;
+        this.buildNanos = buildNanos;
+    }
+
+    /*
+     * Starts measuring the scene of a shape window.
+     * The overlay is added to the root of the scene, outside of the scaled content, so the root must be a Group.
+     */
+    public static PerformanceOverlay attach(Scene scene, long generationNanos, long buildNanos) {
+        PerformanceOverlay overlay = new PerformanceOverlay(scene, generationNanos, buildNanos);
+        overlay.label.setStyle("-fx-font-family: monospace; -fx-text-fill: white; "
+                + "-fx-background-color: rgba(0, 0, 0, 0.6); -fx-padding: 4;");
+        overlay.label.setMouseTransparent(true);
+        overlay.label.setVisible(SHOW);
+        if (scene.getRoot() instanceof Group) {
+            ((Group) scene.getRoot()).getChildren().add(overlay.label);
+        }
+        scene.addPreLayoutPulseListener(overlay::pulse);
+        scene.addEventHandler(KeyEvent.KEY_PRESSED, event -> {
+            if (event.getCode() == KeyCode.F3) {
+                overlay.setShowing(!overlay.isShowing());
+            }
+        });
+        scene.getProperties().put(KEY, overlay);
+        return overlay;
+    }
+
+    /*
+     * Returns the overlay of a scene, null if none was attached
+     */
+    public static PerformanceOverlay of(Scene scene) {
+        return (PerformanceOverlay) scene.getProperties().get(KEY);
+    }
+
+    public boolean isShowing() {
+        return label.isVisible();
+    }
+
+    public void setShowing(boolean showing) {
+        label.setVisible(showing);
+        if (showing) {
+            refresh();
+        }
+    }
+
+    /*
+     * Called at the start of every pulse of the scene
+     */
+    private void pulse() {
+        long now = System.nanoTime();
+        if (lastPulse != 0) {
+            record(now - lastPulse);
+        }
+        lastPulse = now;
+        if (label.isVisible() && now - lastRefresh > REFRESH_NANOS) {
+            lastRefresh = now;
+            refresh();
+        }
+    }
+
+    /*
+     * Adds a frame time to the rolling window, evicting the oldest one once it is full
+     */
+    private void record(long nanos) {
+        if (count == WINDOW) {
+            total -= frames[next];
+            histogram[bucket(frames[next])]--;
+        } else {
+            count++;
+        }
+        frames[next] = nanos;
+        total += nanos;
+        histogram[bucket(nanos)]++;
+        next = (next + 1) % WINDOW;
+    }
+
+    private static int bucket(long nanos) {
+        return (int) Math.min(nanos / BUCKET_NANOS, BUCKETS - 1);
+    }
+
+    /*
+     * Frames per second over the rolling window
+     */
+    public double getFps() {
+        return total == 0 ? 0 : count * 1e9 / total;
+    }
+
+    /*
+     * Number of frames in the rolling window
+     */
+    public int getFrameCount() {
+        return count;
+    }
+
+    /*
+     * Frame time in milliseconds below which the given fraction (0 to 1) of the frames fall,
+     * rounded up to the next bucket
+     */
+    public double getFrameTimePercentile(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(fraction * count);
+        int seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += histogram[b];
+            if (seen >= rank) {
+                return (b + 1) * BUCKET_NANOS / 1e6;
+            }
+        }
+        return BUCKETS * BUCKET_NANOS / 1e6;
+    }
+
+    public double getGenerationMillis() {
+        return generationNanos / 1e6;
+    }
+
+    public double getSceneBuildMillis() {
+        return buildNanos / 1e6;
+    }
+
+    /*
+     * Triangles of every mesh currently in the scene
+     */
+    public long getTriangleCount() {
+        return count(scene.getRoot(), true);
+    }
+
+    /*
+     * Vertices of every mesh currently in the scene
+     */
+    public long getVertexCount() {
+        return count(scene.getRoot(), false);
+    }
+
+    /*
+     * Counts the triangles or vertices below a node.
+     * The meshes of the built in Sphere, Cylinder and Box are not accessible, their counts are estimated
+     * from the number of divisions.
+     */
+    private static long count(Node node, boolean triangles) {
+        long sum = 0;
+        if (node instanceof MeshView && ((MeshView) node).getMesh() instanceof TriangleMesh) {
+            TriangleMesh mesh = (TriangleMesh) ((MeshView) node).getMesh();
+            sum = triangles ? mesh.getFaces().size() / mesh.getFaceElementSize()
+                    : mesh.getPoints().size() / mesh.getPointElementSize();
+        } else if (node instanceof Sphere) {
+            long div = ((Sphere) node).getDivisions();
+            sum = triangles ? div * div : div * div / 2;
+        } else if (node instanceof Cylinder) {
+            long div = ((Cylinder) node).getDivisions();
+            sum = triangles ? div * 4 : div * 2 + 2;
+        } else if (node instanceof Box) {
+            sum = triangles ? 12 : 8;
+        } else if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                sum += count(child, triangles);
+            }
+        }
+        return sum;
+    }
+
+    /*
+     * Updates the text of the overlay
+     */
+    private void refresh() {
+        label.setText(String.format(Locale.ROOT,
+                "FPS %.1f   frame p50 %.2f ms   p99 %.2f ms%n"
+                        + "Triangles %,d   vertices %,d%n"
+                        + "Generation %.2f ms   scene build %.2f ms",
+                getFps(), getFrameTimePercentile(0.5), getFrameTimePercentile(0.99),
+                getTriangleCount(), getVertexCount(), getGenerationMillis(), getSceneBuildMillis()));
+    }
+}
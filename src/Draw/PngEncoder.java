@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: PngEncoder.java
+ * Class Name: Draw.PngEncoder
+ * Last Modified: 10/18/26, 7:20 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/*
+ * The PngEncoder class writes 8 bit RGBA PNG files from ARGB pixels.
+ * It only needs java.util.zip, not AWT or javafx.swing, so it runs on any worker thread.
+ * Every row uses the Sub filter, which compresses the flat backgrounds and shading of the thumbnails well.
+ */
+public final class PngEncoder {
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private PngEncoder() {
+    }
+
+    /*
+     * Writes the pixels, one int per pixel in ARGB order row by row, as a PNG file
+     */
+    public static void write(int[] argb, int width, int height, Path file) throws IOException {
+        try (OutputStream out = Files.newOutputStream(file)) {
+            out.write(encode(argb, width, height));
+        }
+    }
+
+    /*
+     * Encodes the pixels, one int per pixel in ARGB order row by row, as a complete PNG file
+     */
+    public static byte[] encode(int[] argb, int width, int height) {
+        if (argb.length < width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " pixels, got " + argb.length);
+        }
+        int stride = width * 4 + 1;     //The filter type, then RGBA
+        byte[] raw = new byte[stride * height];
+        for (int y = 0; y < height; y++) {
+            int row = y * stride;
+            raw[row] = 1;   //Sub, each byte minus the same byte of the pixel to the left
+            int left = 0;
+            for (int x = 0; x < width; x++) {
+                int pixel = argb[y * width + x];
+                int i = row + 1 + x * 4;
+                raw[i] = (byte) ((pixel >> 16) - (left >> 16));
+                raw[i + 1] = (byte) ((pixel >> 8) - (left >> 8));
+                raw[i + 2] = (byte) (pixel - left);
+                raw[i + 3] = (byte) ((pixel >>> 24) - (left >>> 24));
+                left = pixel;
+            }
+        }
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] compressed = new byte[raw.length + raw.length / 1000 + 64];    //Worst case of deflate
+        int length = 0;
+        while (!deflater.finished()) {
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        deflater.end();
+
+        byte[] png = new byte[SIGNATURE.length + 25 + 12 + length + 12];
+        System.arraycopy(SIGNATURE, 0, png, 0, SIGNATURE.length);
+        int pos = SIGNATURE.length;
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 8;  //Bits per channel
+        header[9] = 6;  //RGBA
+        pos = chunk(png, pos, "IHDR", header, header.length);
+        pos = chunk(png, pos, "IDAT", compressed, length);
+        chunk(png, pos, "IEND", new byte[0], 0);
+        return png;
+    }
+
+    /*
+     * Writes a chunk, its length, type, data and CRC, returns the position after it
+     */
+    private static int chunk(byte[] png, int pos, String type, byte[] data, int length) {
+        putInt(png, pos, length);
+        for (int i = 0; i < 4; i++) {
+            png[pos + 4 + i] = (byte) type.charAt(i);
+        }
+        System.arraycopy(data, 0, png, pos + 8, length);
+        CRC32 crc = new CRC32();
+        crc.update(png, pos + 4, length + 4);   //Type and data
+        putInt(png, pos + 8 + length, (int) crc.getValue());
+        return pos + 12 + length;
+    }
+
+    private static void putInt(byte[] bytes, int pos, int value) {
+        bytes[pos] = (byte) (value >>> 24);
+        bytes[pos + 1] = (byte) (value >>> 16);
+        bytes[pos + 2] = (byte) (value >>> 8);
+        bytes[pos + 3] = (byte) value;
+    }
+}
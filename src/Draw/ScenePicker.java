@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: ScenePicker.java
+ * Class Name: Draw.ScenePicker
+ * Last Modified: 10/18/26, 9:30 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.Bvh;
+import Draw.Geometry.MeshBvh;
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Bounds;
+import javafx.geometry.Point3D;
+import javafx.scene.Camera;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.Scene;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.paint.Material;
+import javafx.scene.paint.Paint;
+import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.Mesh;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.Shape;
+import javafx.scene.shape.Shape3D;
+import javafx.scene.shape.TriangleMesh;
+import javafx.scene.transform.Transform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * The ScenePicker class picks the shapes of a window without the node by node picking of JavaFX.
+ * A ray is cast from the camera through the mouse into two levels of Bvh:
+ * one over the scene bounds of every shape, and one over the triangles of each TriangleMesh.
+ * The shape under the mouse is tracked as the hovered shape. With -Ddraw.diagnostics it is also
+ * highlighted and clicks are logged.
+ * An exclusive picker makes the content mouse transparent, so JavaFX no longer tests every node on each
+ * mouse move. The nodes then get no mouse events of their own, only content without mouse handlers
+ * on its nodes, like the shapes of a MultiShapeScene, should be picked exclusively.
+ *
+ * The transforms of the shapes are watched, a shape that moved or spun only marks its leaf
+ * and the scene tree is refit on the next pick instead of being rebuilt.
+ * The leaves are boxes around the bounding sphere of each shape, so spinning does not grow them.
+ * The triangle trees are shared by every view of a mesh, built on a background thread
+ * (the shape is picked by its box until then) and refit when the vertices are updated in place.
+ * Only the camera of the shape windows is supported, a PerspectiveCamera(false) that is not moved.
+ * Primitives without a mesh (Sphere, Box, Cylinder) are picked by their box.
+ * Must only be used on the JavaFX thread.
+ */
+public final class ScenePicker {
+    private static final String KEY = "Draw.ScenePicker";  //Scene property key
+    private static final boolean LOG = Boolean.getBoolean("draw.diagnostics");
+    private static final Color HIGHLIGHT = Color.CORNFLOWERBLUE;   //Hovered shape, with -Ddraw.diagnostics
+    /*
+     * The triangle tree of every mesh picked so far, dropped with the mesh
+     */
+    private static final Map<Mesh, MeshEntry> MESHES = new WeakHashMap<>();
+    private static final ExecutorService BUILDER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bvh-builder");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static PhongMaterial highlightMaterial;     //Created on first use, on the JavaFX thread
+
+    private final Scene scene;
+    private final Parent content;
+    private final List<Parent> parents = new ArrayList<>();     //Watched for added or removed shapes
+    private final ListChangeListener<Node> structure = change -> rebuild = true;
+    private final double[] distance = new double[1];
+    private Node[] shapes = new Node[0];
+    private InvalidationListener[] moved = new InvalidationListener[0];
+    private Bvh bvh;
+    private boolean rebuild = true;
+    private int triangle;   //Triangle of the last shape that reported a hit
+    private Node hovered;
+    private Object saved;   //Material or fill of the hovered shape
+
+    /*
+     * A shape hit by a pick
+     */
+    public static final class Hit {
+        private final Node node;
+        private final int triangle;
+        private final double distance;
+
+        private Hit(Node node, int triangle, double distance) {
+            this.node = node;
+            this.triangle = triangle;
+            this.distance = distance;
+        }
+
+        public Node getNode() {
+            return node;
+        }
+
+        /*
+         * Index of the triangle hit, -1 when the shape is not a mesh or its tree is not built yet
+         */
+        public int getTriangle() {
+            return triangle;
+        }
+
+        /*
+         * Distance from the eye, in units of the distance from the eye to the screen
+         */
+        public double getDistance() {
+            return distance;
+        }
+    }
+
+    /*
+     * The triangle tree of a mesh and whether the mesh changed since it was built
+     */
+    private static final class MeshEntry {
+        CompletableFuture<MeshBvh> tree;    //null when it has to be built
+        boolean pointsChanged;
+    }
+
+    private ScenePicker(Scene scene, Parent content) {
+        this.scene = scene;
+        this.content = content;
+    }
+
+    /*
+     * Picks the shapes of content, the group holding every shape of the scene, with the mouse.
+     * The nodes keep receiving their mouse events through the picking of JavaFX.
+     */
+    public static ScenePicker install(Scene scene, Parent content) {
+        return install(scene, content, false);
+    }
+
+    /*
+     * Picks the shapes of content with the mouse, replacing the picking of JavaFX when exclusive is set
+     */
+    public static ScenePicker install(Scene scene, Parent content, boolean exclusive) {
+        ScenePicker picker = new ScenePicker(scene, content);
+        if (exclusive) {
+            content.setMouseTransparent(true);
+        }
+        scene.addEventHandler(MouseEvent.MOUSE_MOVED, event -> {
+            Hit hit = picker.pick(event.getSceneX(), event.getSceneY());
+            picker.setHovered(hit == null ? null : hit.getNode());
+        });
+        scene.addEventHandler(MouseEvent.MOUSE_EXITED, event -> picker.setHovered(null));
+        scene.addEventHandler(MouseEvent.MOUSE_CLICKED, event -> {
+            long start = System.nanoTime();
+            Hit hit = picker.pick(event.getSceneX(), event.getSceneY());
+            if (LOG) {
+                System.err.printf("[ScenePicker] %s, triangle %d, %d shapes, %.1f us%n",
+                        hit == null ? "nothing" : hit.getNode().getClass().getSimpleName(),
+                        hit == null ? -1 : hit.getTriangle(), picker.shapes.length,
+                        (System.nanoTime() - start) / 1e3);
+            }
+        });
+        scene.getProperties().put(KEY, picker);
+        return picker;
+    }
+
+    /*
+     * Returns the picker of a scene, null if none was installed
+     */
+    public static ScenePicker of(Scene scene) {
+        return (ScenePicker) scene.getProperties().get(KEY);
+    }
+
+    public Node getHovered() {
+        return hovered;
+    }
+
+    /*
+     * Returns the closest shape under a point of the scene, null if there is none
+     */
+    public Hit pick(double sceneX, double sceneY) {
+        if (rebuild) {
+            collect();
+        }
+        bvh.refit();    //Only the shapes that moved since the last pick
+        double ox, oy, oz, dx, dy, dz;
+        Camera camera = scene.getCamera();
+        if (camera instanceof PerspectiveCamera && !((PerspectiveCamera) camera).isFixedEyeAtCameraZero()) {
+            //The eye is centered in front of the window, the Z=0 plane maps 1:1 to pixels
+            PerspectiveCamera perspective = (PerspectiveCamera) camera;
+            double size = perspective.isVerticalFieldOfView() ? scene.getHeight() : scene.getWidth();
+            double eye = (size / 2) / Math.tan(Math.toRadians(perspective.getFieldOfView() / 2));
+            ox = scene.getWidth() / 2;
+            oy = scene.getHeight() / 2;
+            oz = -eye;
+            dx = sceneX - ox;
+            dy = sceneY - oy;
+            dz = eye;
+        } else {
+            ox = sceneX;    //Parallel projection, straight into the screen
+            oy = sceneY;
+            oz = -1e6;
+            dx = 0;
+            dy = 0;
+            dz = 1;
+        }
+        int item = bvh.raycast(ox, oy, oz, dx, dy, dz, Double.POSITIVE_INFINITY,
+                (shape, max) -> test(shapes[shape], ox, oy, oz, dx, dy, dz, max), distance);
+        if (item < 0) {
+            return null;
+        }
+        //Tested again, the triangle of a later miss may have replaced the one of the closest hit
+        test(shapes[item], ox, oy, oz, dx, dy, dz, Double.POSITIVE_INFINITY);
+        return new Hit(shapes[item], triangle, distance[0]);
+    }
+
+    /*
+     * Collects every shape under content and builds the scene tree over their bounds
+     */
+    private void collect() {
+        for (int i = 0; i < shapes.length; i++) {
+            shapes[i].localToSceneTransformProperty().removeListener(moved[i]);
+            shapes[i].boundsInLocalProperty().removeListener(moved[i]);
+        }
+        for (Parent parent : parents) {
+            parent.getChildrenUnmodifiable().removeListener(structure);
+        }
+        parents.clear();
+        List<Node> found = new ArrayList<>();
+        collect(content, found);
+        shapes = found.toArray(new Node[0]);
+        moved = new InvalidationListener[shapes.length];
+        bvh = new Bvh(shapes.length, (shape, box) -> sceneBox(shapes[shape], box));
+        for (int i = 0; i < shapes.length; i++) {
+            int index = i;
+            Bvh tree = bvh;
+            moved[i] = observable -> tree.invalidate(index);
+            shapes[i].localToSceneTransformProperty().addListener(moved[i]);
+            shapes[i].boundsInLocalProperty().addListener(moved[i]);
+        }
+        rebuild = false;
+    }
+
+    private void collect(Node node, List<Node> found) {
+        if (node instanceof Shape3D || node instanceof Shape) {
+            found.add(node);
+        } else if (node instanceof Parent) {
+            Parent parent = (Parent) node;
+            parents.add(parent);
+            parent.getChildrenUnmodifiable().addListener(structure);
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                collect(child, found);
+            }
+        }
+    }
+
+    /*
+     * Writes a box around the shape in the scene, large enough for any rotation around its center.
+     * So a shape spinning in place keeps the same box and the tree stays as good as when it was built.
+     * Reading the transform also lets it invalidate again.
+     */
+    private static void sceneBox(Node node, float[] box) {
+        Bounds local = node.getBoundsInLocal();
+        Transform t = node.getLocalToSceneTransform();
+        Point3D center = t.transform((local.getMinX() + local.getMaxX()) / 2, (local.getMinY() + local.getMaxY()) / 2,
+                (local.getMinZ() + local.getMaxZ()) / 2);
+        double halfDiagonal = Math.sqrt(local.getWidth() * local.getWidth() + local.getHeight() * local.getHeight()
+                + local.getDepth() * local.getDepth()) / 2;
+        //The Frobenius norm bounds how much the transform can stretch the sphere in any direction
+        double stretch = Math.sqrt(t.getMxx() * t.getMxx() + t.getMxy() * t.getMxy() + t.getMxz() * t.getMxz()
+                + t.getMyx() * t.getMyx() + t.getMyy() * t.getMyy() + t.getMyz() * t.getMyz()
+                + t.getMzx() * t.getMzx() + t.getMzy() * t.getMzy() + t.getMzz() * t.getMzz());
+        float radius = (float) (halfDiagonal * stretch);
+        box[0] = (float) center.getX() - radius;
+        box[1] = (float) center.getY() - radius;
+        box[2] = (float) center.getZ() - radius;
+        box[3] = (float) center.getX() + radius;
+        box[4] = (float) center.getY() + radius;
+        box[5] = (float) center.getZ() + radius;
+    }
+
+    /*
+     * Tests the ray against a shape whose box it hit, returns the distance or infinity
+     */
+    private double test(Node node, double ox, double oy, double oz, double dx, double dy, double dz, double max) {
+        for (Node n = node; n != null && n != content; n = n.getParent()) {
+            if (!n.isVisible()) {
+                return Double.POSITIVE_INFINITY;
+            }
+        }
+        triangle = -1;
+        MeshBvh tree = node instanceof MeshView ? tree(((MeshView) node).getMesh()) : null;
+        if (tree == null && !(node instanceof Shape)) {
+            Bounds bounds = node.localToScene(node.getBoundsInLocal());    //Tighter than the box of the tree
+            float[] box = {(float) bounds.getMinX(), (float) bounds.getMinY(), (float) bounds.getMinZ(),
+                    (float) bounds.getMaxX(), (float) bounds.getMaxY(), (float) bounds.getMaxZ()};
+            return Bvh.rayBox(box, 0, ox, oy, oz, dx, dy, dz);
+        }
+        //The same ray in the coordinates of the shape, distances along it do not change
+        Point3D origin = node.sceneToLocal(ox, oy, oz);
+        Point3D end = node.sceneToLocal(ox + dx, oy + dy, oz + dz);
+        double lx = end.getX() - origin.getX();
+        double ly = end.getY() - origin.getY();
+        double lz = end.getZ() - origin.getZ();
+        if (tree != null) {
+            int hit = tree.intersect(origin.getX(), origin.getY(), origin.getZ(), lx, ly, lz, max, distance);
+            if (hit < 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            triangle = hit;
+            return distance[0];
+        }
+        //A 2D shape lies in its Z=0 plane
+        if (lz == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double t = -origin.getZ() / lz;
+        if (t < 0 || !node.contains(origin.getX() + t * lx, origin.getY() + t * ly)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return t;
+    }
+
+    /*
+     * Returns the triangle tree of a mesh, null if it is not a TriangleMesh or the tree is still being built
+     */
+    private static MeshBvh tree(Mesh mesh) {
+        if (!(mesh instanceof TriangleMesh)) {
+            return null;
+        }
+        TriangleMesh triangles = (TriangleMesh) mesh;
+        MeshEntry entry = MESHES.get(mesh);
+        if (entry == null) {
+            MeshEntry created = new MeshEntry();
+            triangles.getPoints().addListener((array, sizeChanged, from, to) -> created.pointsChanged = true);
+            triangles.getFaces().addListener((array, sizeChanged, from, to) -> created.tree = null);
+            MESHES.put(mesh, created);
+            entry = created;
+        }
+        if (entry.tree == null) {
+            float[] points = triangles.getPoints().toArray(null);
+            int[] faces = triangles.getFaces().toArray(null);
+            int stride = triangles.getFaceElementSize();   //Ints per face, 6 with texture coordinates
+            entry.pointsChanged = false;
+            entry.tree = CompletableFuture.supplyAsync(() -> build(points, faces, stride), BUILDER);
+        }
+        if (!entry.tree.isDone() || entry.tree.isCompletedExceptionally()) {
+            return null;
+        }
+        MeshBvh tree = entry.tree.join();
+        if (entry.pointsChanged) {
+            entry.pointsChanged = false;
+            float[] points = triangles.getPoints().toArray(null);
+            if (points.length / 3 == tree.getPointCount()) {
+                tree.refit(points);     //Moved in place, like a LiveMesh
+            } else {
+                entry.tree = null;
+                return tree(mesh);
+            }
+        }
+        return tree;
+    }
+
+    private static MeshBvh build(float[] points, int[] faces, int stride) {
+        long start = System.nanoTime();
+        MeshBvh tree = new MeshBvh(points, faces, stride);
+        if (LOG) {
+            System.err.printf("[ScenePicker] Built the tree of %d triangles in %.1f ms%n",
+                    tree.getTriangleCount(), (System.nanoTime() - start) / 1e6);
+        }
+        return tree;
+    }
+
+    /*
+     * Tracks the shape under the mouse, with -Ddraw.diagnostics it is highlighted and the previous one restored
+     */
+    private void setHovered(Node node) {
+        if (node == hovered) {
+            return;
+        }
+        if (!LOG) {
+            hovered = node;
+            return;
+        }
+        if (hovered instanceof Shape3D) {
+            ((Shape3D) hovered).setMaterial((Material) saved);
+        } else if (hovered instanceof Shape) {
+            ((Shape) hovered).setFill((Paint) saved);
+        }
+        hovered = node;
+        if (node instanceof Shape3D) {
+            if (highlightMaterial == null) {
+                highlightMaterial = new PhongMaterial(HIGHLIGHT);
+            }
+            saved = ((Shape3D) node).getMaterial();
+            ((Shape3D) node).setMaterial(highlightMaterial);
+        } else if (node instanceof Shape) {
+            saved = ((Shape) node).getFill();
+            ((Shape) node).setFill(HIGHLIGHT);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: ShapeCanvas.java
+ * Class Name: Draw.ShapeCanvas
+ * Last Modified: 10/18/26, 8:40 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+/*
+ * The ShapeCanvas class draws many copies of a 2D shape into a single Canvas.
+ * There is no node per shape: the position and half size of every shape are kept in primitive arrays
+ * (one array per field) and the whole canvas is redrawn on every pulse of a SpinClock.
+ * The spin around the Y axis is faked by scaling each shape along X by the cosine of its angle,
+ * which is what the perspective-free RotateTransition of the single shape looks like.
+ * The fill is set once per frame and every shape goes into one path with a single fill,
+ * so the GraphicsContext gets no transform, state change or fill per shape.
+ * Circles are traced as four cubic Bezier curves, which stay within 0.03% of the ellipse.
+ * All the shapes of a path wind the same way, overlapping ones add up instead of cancelling out.
+ */
+public final class ShapeCanvas implements SpinClock.Target {
+    private static final double MIN_WIDTH = 0.05;   //Pixels, narrower shapes are edge on and skipped
+    private static final double KAPPA = 0.5522847498307936;   //Control point distance of a quarter ellipse
+
+    private final String shape;
+    private final Canvas canvas;
+    private final GraphicsContext graphics;
+    private final double[] x;   //Center of every shape
+    private final double[] y;
+    private final double[] halfWidth;   //Half size of every shape before the spin
+    private final double[] halfHeight;
+
+    /*
+     * Creates a canvas of the given size for count shapes, all at the origin with no size.
+     * Throws an IllegalArgumentException if the shape is not a 2D shape.
+     */
+    public ShapeCanvas(String shape, int count, double width, double height) {
+        if (!supports(shape)) {
+            throw new IllegalArgumentException("Not a 2D shape: " + shape);
+        }
+        this.shape = shape;
+        canvas = new Canvas(width, height);
+        graphics = canvas.getGraphicsContext2D();
+        x = new double[count];
+        y = new double[count];
+        halfWidth = new double[count];
+        halfHeight = new double[count];
+    }
+
+    /*
+     * Returns true for the shapes the canvas can draw
+     */
+    public static boolean supports(String shape) {
+        return switch (shape) {
+            case ("circle"), ("square"), ("triangle"), ("rectangle") -> true;
+            default -> false;
+        };
+    }
+
+    /*
+     * Places shape i, centered on (centerX, centerY).
+     * For a circle the half sizes are the radius, for a triangle the half length of its sides.
+     */
+    public void set(int i, double centerX, double centerY, double halfWidth, double halfHeight) {
+        x[i] = centerX;
+        y[i] = centerY;
+        this.halfWidth[i] = halfWidth;
+        this.halfHeight[i] = halfHeight;
+    }
+
+    public Canvas getCanvas() {
+        return canvas;
+    }
+
+    public int getShapeCount() {
+        return x.length;
+    }
+
+    /*
+     * Redraws every shape at its angle around the Y axis, in degrees
+     */
+    @Override
+    public void apply(double[] angles) {
+        GraphicsContext g = graphics;
+        g.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        g.setFill(Color.BLACK);     //The default fill of the shape nodes
+        g.beginPath();
+        switch (shape) {
+            case ("circle") -> {
+                for (int i = 0; i < x.length; i++) {
+                    double w = halfWidth[i] * Math.abs(Math.cos(Math.toRadians(angles[i])));
+                    if (w * 2 < MIN_WIDTH) {
+                        continue;
+                    }
+                    double cx = x[i], cy = y[i], h = halfHeight[i];
+                    double kw = w * KAPPA, kh = h * KAPPA;
+                    g.moveTo(cx + w, cy);
+                    g.bezierCurveTo(cx + w, cy + kh, cx + kw, cy + h, cx, cy + h);
+                    g.bezierCurveTo(cx - kw, cy + h, cx - w, cy + kh, cx - w, cy);
+                    g.bezierCurveTo(cx - w, cy - kh, cx - kw, cy - h, cx, cy - h);
+                    g.bezierCurveTo(cx + kw, cy - h, cx + w, cy - kh, cx + w, cy);
+                    g.closePath();
+                }
+            }
+            case ("square"), ("rectangle") -> {
+                for (int i = 0; i < x.length; i++) {
+                    double w = halfWidth[i] * Math.abs(Math.cos(Math.toRadians(angles[i])));
+                    if (w * 2 < MIN_WIDTH) {
+                        continue;
+                    }
+                    double h = halfHeight[i];
+                    g.moveTo(x[i] - w, y[i] - h);
+                    g.lineTo(x[i] + w, y[i] - h);
+                    g.lineTo(x[i] + w, y[i] + h);
+                    g.lineTo(x[i] - w, y[i] + h);
+                    g.closePath();
+                }
+            }
+            default -> {
+                //Right triangle with the right angle at the bottom right, like drawTriangle()
+                for (int i = 0; i < x.length; i++) {
+                    double w = halfWidth[i] * Math.cos(Math.toRadians(angles[i]));    //Signed, it mirrors
+                    if (Math.abs(w * 2) < MIN_WIDTH) {
+                        continue;
+                    }
+                    double h = halfHeight[i];
+                    //A mirrored triangle is traced backwards, so overlapping ones cannot cancel out
+                    g.moveTo(x[i] + w, y[i] - h);
+                    if (w > 0) {
+                        g.lineTo(x[i] - w, y[i] + h);
+                        g.lineTo(x[i] + w, y[i] + h);
+                    } else {
+                        g.lineTo(x[i] + w, y[i] + h);
+                        g.lineTo(x[i] - w, y[i] + h);
+                    }
+                    g.closePath();
+                }
+            }
+        }
+        g.fill();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: ShapeWindows.java
+ * Class Name: Draw.ShapeWindows
+ * Last Modified: 10/19/26, 9:20 AM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import javafx.animation.Animation;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.NumberBinding;
+import javafx.scene.Group;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.transform.Scale;
+import javafx.scene.transform.Translate;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * The ShapeWindows class manages the lifecycle of the windows that show a shape.
+ * When a window closes or is hidden its animations are stopped and its scene is released,
+ * so nothing keeps the node graph or the animation pulse alive.
+ * Animations, including the shared SpinClock of a multi shape scene, are paused while a window is minimized.
+ * Closed stages are kept in a small pool and reused for the next shape.
+ * All methods must be called on the JavaFX application thread.
+ */
+public final class ShapeWindows {
+    /*
+     * Number of hidden stages kept for reuse, -Ddraw.stagePool=<n> to change
+     */
+    private static final int POOL_SIZE = Integer.getInteger("draw.stagePool", 4);
+    /*
+     * Logs the diagnostic report every time a window opens or closes, -Ddraw.diagnostics=true
+     */
+    private static final boolean LOG = Boolean.getBoolean("draw.diagnostics");
+    private static final String ANIMATIONS = "Draw.ShapeWindows.animations";   //Stage property key
+    private static final String CLOCK = "Draw.ShapeWindows.clock";  //Stage property key
+
+    private static final Deque<Stage> POOL = new ArrayDeque<>();    //Hidden stages ready for reuse
+    private static final Set<Stage> LIVE = new LinkedHashSet<>();   //Stages currently showing a shape
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private ShapeWindows() {
+    }
+
+    /*
+     * Returns a stage to show a shape in, a pooled one if there is one
+     */
+    public static Stage acquire() {
+        Stage stage = POOL.poll();
+        return stage != null ? stage : create();
+    }
+
+    /*
+     * Shows the scene in the stage and starts tracking its animations
+     */
+    public static void show(Stage stage, Scene scene, List<Animation> animations) {
+        stage.getProperties().put(ANIMATIONS, new ArrayList<>(animations));
+        stage.setScene(scene);
+        stage.sizeToScene();    //A pooled stage still has the size of its last shape
+        LIVE.add(stage);
+        stage.show();
+        log();
+    }
+
+    /*
+     * Shows a multi shape scene in the stage and starts its clock
+     */
+    public static void show(Stage stage, Scene scene, SpinClock clock) {
+        stage.getProperties().put(CLOCK, clock);
+        show(stage, scene, List.of());
+        clock.start();
+    }
+
+    /*
+     * Scales and centers the content so a size x size drawing area fills the window
+     */
+    public static void fitToWindow(Group content, Scene scene, double size) {
+        NumberBinding scale = Bindings.min(scene.widthProperty(), scene.heightProperty()).divide(size);
+        Scale fit = new Scale();
+        fit.xProperty().bind(scale);
+        fit.yProperty().bind(scale);
+        fit.zProperty().bind(scale);
+        Translate center = new Translate();
+        center.xProperty().bind(scene.widthProperty().subtract(scale.multiply(size)).divide(2));
+        center.yProperty().bind(scene.heightProperty().subtract(scale.multiply(size)).divide(2));
+        content.getTransforms().addAll(center, fit);    //Scale first, then center
+    }
+
+    /*
+     * Creates a new stage with the lifecycle handlers installed
+     */
+    private static Stage create() {
+        Stage stage = new Stage();
+        stage.setResizable(true);
+        stage.setOnHidden(event -> release(stage));
+        //Pauses the animations while minimized, they would only be wasted pulses
+        stage.iconifiedProperty().addListener((observable, wasIconified, iconified) -> {
+            for (Animation animation : animations(stage)) {
+                if (iconified) {
+                    animation.pause();
+                } else if (animation.getStatus() == Animation.Status.PAUSED) {
+                    animation.play();
+                }
+            }
+            SpinClock clock = clock(stage);
+            if (clock != null && iconified) {
+                clock.stop();
+            } else if (clock != null) {
+                clock.start();
+            }
+        });
+        return stage;
+    }
+
+    /*
+     * Stops the animations of a hidden stage, releases its scene and pools it
+     */
+    private static void release(Stage stage) {
+        for (Animation animation : animations(stage)) {
+            animation.stop();
+        }
+        stage.getProperties().remove(ANIMATIONS);
+        SpinClock clock = clock(stage);
+        if (clock != null) {
+            clock.stop();
+            stage.getProperties().remove(CLOCK);
+        }
+        Scene scene = stage.getScene();
+        if (scene != null) {
+            Parent root = scene.getRoot();
+            if (root instanceof Group) {
+                ((Group) root).getChildren().clear();   //Detach the shape so it can be collected
+            }
+            stage.setScene(null);
+        }
+        LIVE.remove(stage);
+        if (POOL.size() < POOL_SIZE && !POOL.contains(stage)) {
+            POOL.push(stage);
+        }
+        log();
+    }
+
+    /*
+     * Returns the animations of a stage, empty if it has none
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Animation> animations(Stage stage) {
+        Object animations = stage.getProperties().get(ANIMATIONS);
+        return animations == null ? List.of() : (List<Animation>) animations;
+    }
+
+    /*
+     * Returns the clock of a multi shape stage, null for a single shape
+     */
+    private static SpinClock clock(Stage stage) {
+        return (SpinClock) stage.getProperties().get(CLOCK);
+    }
+
+    /*
+     * Number of shape windows currently showing
+     */
+    public static int getLiveWindowCount() {
+        return LIVE.size();
+    }
+
+    /*
+     * Number of hidden stages waiting to be reused
+     */
+    public static int getPooledWindowCount() {
+        return POOL.size();
+    }
+
+    /*
+     * Number of shape animations currently running, paused ones are not counted
+     * A running SpinClock counts once per shape it drives
+     */
+    public static int getRunningAnimationCount() {
+        int running = 0;
+        for (Stage stage : LIVE) {
+            for (Animation animation : animations(stage)) {
+                if (animation.getStatus() == Animation.Status.RUNNING) {
+                    running++;
+                }
+            }
+            SpinClock clock = clock(stage);
+            if (clock != null && clock.isRunning()) {
+                running += clock.getShapeCount();
+            }
+        }
+        return running;
+    }
+
+    /*
+     * Returns a one line summary of the windows and animations, used for diagnostics
+     */
+    public static String report() {
+        return "Shape windows: live=" + LIVE.size() + ", pooled=" + POOL.size()
+                + ", running animations=" + getRunningAnimationCount()
+                + ", all JavaFX windows=" + Window.getWindows().size();
+    }
+
+    /*
+     * Prints the report when diagnostics are enabled
+     */
+    private static void log() {
+        if (LOG) {
+            System.err.println(report());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: SpinClock.java
+ * Class Name: Draw.SpinClock
+ * Last Modified: 10/19/26, 11:05 AM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.transform.Rotate;
+
+/*
+ * The SpinClock class spins many shapes from a single AnimationTimer.
+ * It replaces one RotateTransition per node: on every pulse the angles of all shapes
+ * are computed into a primitive array and then copied into each shape's Rotate.
+ * The motion is the same as animateShape(): 0 to 360 degrees in 5 seconds, then back.
+ * Each shape has its own time offset so they do not all move in lockstep.
+ * Instead of transforms, the angles can also be handed to a Target that draws the shapes itself.
+ */
+public class SpinClock extends AnimationTimer {
+    private static final double PERIOD = 5;    //Seconds for one 360 degree turn
+
+    private final Target target;    //Receives the angles of every pulse
+    private final double[] offsets;     //Time offset of every shape, in seconds
+    private final double[] angles;      //Angle of every shape for the current pulse
+    private long elapsed;       //Nanoseconds the clock has been running, paused time excluded
+    private long lastPulse = -1;    //Time of the previous pulse, -1 when stopped
+    private boolean running;
+
+    /*
+     * Called on every pulse with the angle of every shape, in degrees.
+     * The array is reused by the next pulse.
+     */
+    public interface Target {
+        void apply(double[] angles);
+    }
+
+    /*
+     * Creates a clock for the given transforms, offsets has one entry per transform
+     */
+    public SpinClock(Rotate[] rotates, double[] offsets) {
+        this(checked(rotates, offsets), angles -> {
+            for (int i = 0; i < angles.length; i++) {
+                rotates[i].setAngle(angles[i]);
+            }
+        });
+    }
+
+    /*
+     * Creates a clock for offsets.length shapes drawn by the target
+     */
+    public SpinClock(double[] offsets, Target target) {
+        this.target = target;
+        this.offsets = offsets;
+        this.angles = new double[offsets.length];
+    }
+
+    private static double[] checked(Rotate[] rotates, double[] offsets) {
+        if (rotates.length != offsets.length) {
+            throw new IllegalArgumentException("One offset is needed per shape");
+        }
+        return offsets;
+    }
+
+    @Override
+    public void handle(long now) {
+        if (lastPulse >= 0) {
+            elapsed += now - lastPulse;
+        }
+        lastPulse = now;
+        double seconds = elapsed / 1e9;
+        //Primitive loop first, then the target writes the transforms or draws
+        for (int i = 0; i < angles.length; i++) {
+            double phase = ((seconds + offsets[i]) / PERIOD) % 2;
+            angles[i] = 360 * (phase < 1 ? phase : 2 - phase);  //Auto reverse
+        }
+        target.apply(angles);
+    }
+
+    @Override
+    public void start() {
+        super.start();
+        running = true;
+    }
+
+    /*
+     * Stops the clock, the shapes keep their angle and resume from it on the next start
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        lastPulse = -1;
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /*
+     * Number of shapes driven by this clock
+     */
+    public int getShapeCount() {
+        return angles.length;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: Startup.java
+ * Class Name: Draw.Startup
+ * Last Modified: 10/18/26, 4:20 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.ShapeParameters;
+import Draw.Geometry.Shapes;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*
+ * The Startup class keeps startup off of the path to the first window.
+ * It records the time from the start of the JVM to a few milestones (launch, first frame, first shape shown)
+ * and, once the main window has been painted, warms up the mesh generation on a background thread.
+ * The milestones are printed with -Ddraw.diagnostics=true and can be read with getMarks().
+ */
+public final class Startup {
+    public static final String LAUNCH = "launch";   //Application.start() was called
+    public static final String FIRST_FRAME = "first frame"; //The main window was painted
+    public static final String POPUP_READY = "popup ready"; //parameters.fxml was loaded after the first frame
+    public static final String WARM_UP_DONE = "warm-up done";   //The default meshes are in the MeshCache
+    public static final String FIRST_SHAPE = "first shape shown";
+    /*
+     * Prints every milestone as it happens, -Ddraw.diagnostics=true
+     */
+    private static final boolean LOG = Boolean.getBoolean("draw.diagnostics");
+
+    private static final Map<String, Long> MARKS = new LinkedHashMap<>();  //Milliseconds since JVM start
+
+    /*
+     * Private constructor, this class only contains static methods
+     */
+    private Startup() {
+    }
+
+    /*
+     * Records the time of a milestone, only the first time it is reached counts
+     */
+    public static synchronized void mark(String milestone) {
+        if (MARKS.containsKey(milestone)) {
+            return;
+        }
+        long millis = ManagementFactory.getRuntimeMXBean().getUptime();
+        MARKS.put(milestone, millis);
+        if (LOG) {
+            System.err.println("Startup: " + milestone + " after " + millis + " ms");
+        }
+    }
+
+    /*
+     * Milliseconds from JVM start to the milestone, -1 if it was not reached yet
+     */
+    public static synchronized long getMillis(String milestone) {
+        return MARKS.getOrDefault(milestone, -1L);
+    }
+
+    /*
+     * Copy of every milestone reached so far, in order
+     */
+    public static synchronized Map<String, Long> getMarks() {
+        return new LinkedHashMap<>(MARKS);
+    }
+
+    /*
+     * Runs the task once the scene has gone through its first pulse.
+     * The task is posted with runLater so it runs after the frame was handed to the renderer.
+     */
+    public static void afterFirstFrame(Scene scene, Runnable task) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            Platform.runLater(task);
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    /*
+     * Marks the first frame of the main window and starts the background work
+     */
+    public static void firstFrame() {
+        mark(FIRST_FRAME);
+        Controller.preload();
+        warmUp();
+    }
+
+    /*
+     * Generates the mesh of every shape with the default dimensions on a low priority daemon thread.
+     * Loads and compiles the generators before the user needs them,
+     * and the meshes land in the MeshCache so the first shape drawn with blank fields is a cache hit.
+     */
+    public static void warmUp() {
+        Thread thread = new Thread(() -> {
+            ShapeParameters defaults = ShapeParameters.parse("", "", "", "", "");
+            for (String shape : Shapes.NAMES) {
+                Shapes.mesh(shape, defaults, 1);
+            }
+            mark(WARM_UP_DONE);
+        }, "shape-warm-up");
+        thread.setDaemon(true);     //Never keeps the application alive
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2020
+ * Project: DrawShape
+ * Filename: Thumbnails.java
+ * Class Name: Draw.Thumbnails
+ * Last Modified: 10/18/26, 7:45 PM
+ * Author: nbonnin (Naomi Bonnin)
+ * Project Description: This program presents the user with a series of shapes
+ * from which the user can choose.
+ * The user will then be prompted to enter the dimensions of their chosen shape.
+ * Finally, the program will attempt to display a spinning version of the
+ * chosen shape with the provided dimensions.
+ *
+ */
+
+package Draw;
+
+import Draw.Geometry.MeshData;
+import Draw.Geometry.Shapes;
+import javafx.application.ConditionalFeature;
+import javafx.application.Platform;
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.Scene;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.MeshView;
+import javafx.scene.shape.Polygon;
+import javafx.scene.transform.Affine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * The Thumbnails class is a command line entry point that renders a PNG image of many shapes.
+ * Usage: java Draw.Thumbnails <spec file> [-out dir] [-size px] [-threads n]
+ * The spec file is the same as for Batch, one image <index>-<shape>.png is written per spec.
+ *
+ * The work runs as three pipelined stages, connected by bounded queues so memory stays flat:
+ *  1. Generation, a pool of workers generating the meshes with Shapes.mesh().
+ *  2. Rendering, on the JavaFX thread, builds each shape's Group and renders it with Scene.snapshot().
+ *  3. Encoding, a second pool of workers compressing the pixels with the PngEncoder and writing the files.
+ * So the JavaFX thread only builds nodes and renders while the other cores generate and encode.
+ * The sustained images/sec and the time spent in each stage are printed when done.
+ *
+ * The software pipeline (prism.order=sw) is selected unless another one is set on the command line,
+ * so no GPU is needed. It does not support 3D, so every mesh is then projected to flat shaded polygons
+ * on the generation workers, sorted back to front, instead of being drawn as a MeshView.
+ * The toolkit still needs a display, a virtual one (Xvfb) is enough on a server.
+ * With the openjfx-monocle jar on the class path, -Dglass.platform=Monocle -Dmonocle.platform=Headless
+ * renders without any display at all.
+ */
+public class Thumbnails {
+    private static final int DEFAULT_SIZE = 256;
+    private static final double SHAPE_SIZE = 300;   //Size of the drawing area of a single shape in the viewer
+    private static final List<String> FLAT = Arrays.asList("circle", "square", "triangle", "rectangle");
+    private static final double TILT_X = -25;   //Degrees, the 3D shapes are shown from slightly above
+    private static final double TILT_Y = 30;    //Degrees, and from the side
+
+    /*
+     * One image going through the stages
+     */
+    private static final class Job {
+        final int index;
+        final Batch.Spec spec;
+        MeshData mesh;  //The mesh when 3D is supported
+        float[] polygons;   //Otherwise the projected triangles, 6 coordinates each, back to front
+        float[] shades;     //And the gray level of each triangle
+        int[] argb;     //The rendered pixels
+
+        Job(int index, Batch.Spec spec) {
+            this.index = index;
+            this.spec = spec;
+        }
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: java Draw.Thumbnails <spec file> [-out dir] [-size px] [-threads n]");
+            System.exit(2);
+        }
+        Path specFile = Paths.get(args[0]);
+        Path out = Paths.get("thumbnails");
+        int size = DEFAULT_SIZE;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);  //Per pool
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case ("-out") -> out = Paths.get(args[++i]);
+                case ("-size") -> size = Integer.parseInt(args[++i]);
+                case ("-threads") -> threads = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        List<Batch.Spec> specs = Batch.readSpecs(specFile);
+        Files.createDirectories(out);
+        if (System.getProperty("prism.order") == null) {
+            System.setProperty("prism.order", "sw");    //Must be set before the toolkit starts
+        }
+        CountDownLatch started = new CountDownLatch(1);
+        Platform.startup(started::countDown);
+        started.await();
+        try {
+            run(specs, out, size, threads);
+        } finally {
+            Platform.exit();
+        }
+    }
+
+    /*
+     * Renders every spec through the three stages and prints the throughput
+     */
+    static void run(List<Batch.Spec> specs, Path out, int size, int threads)
+            throws IOException, InterruptedException {
+        boolean meshViews = Platform.isSupported(ConditionalFeature.SCENE3D);
+        double scale = size / SHAPE_SIZE;
+        BlockingQueue<Job> generated = new ArrayBlockingQueue<>(threads * 2);
+        Semaphore rendered = new Semaphore(threads * 2);    //Images waiting for or in the encoders
+        CountDownLatch done = new CountDownLatch(specs.size());
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicInteger written = new AtomicInteger();
+        LongAdder generateNanos = new LongAdder();
+        LongAdder renderNanos = new LongAdder();
+        LongAdder encodeNanos = new LongAdder();
+        ExecutorService generators = Executors.newFixedThreadPool(threads, daemon("thumbnail-generator"));
+        ExecutorService encoders = Executors.newFixedThreadPool(threads, daemon("thumbnail-encoder"));
+        WritableImage image = new WritableImage(size, size);    //Reused, the pixels are copied out right away
+        long start = System.nanoTime();
+
+        for (int i = 0; i < specs.size(); i++) {
+            Job job = new Job(i, specs.get(i));
+            generators.execute(() -> {
+                long begin = System.nanoTime();
+                try {
+                    MeshData mesh = Shapes.mesh(job.spec.shape, job.spec.parameters(), scale);
+                    if (meshViews) {
+                        job.mesh = mesh;
+                    } else {
+                        project(job, mesh);
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+                generateNanos.add(System.nanoTime() - begin);
+                try {
+                    generated.put(job);     //Blocks while the renderer is behind
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        //Hands the generated meshes to the JavaFX thread, never more than the encoders can take
+        for (int i = 0; i < specs.size(); i++) {
+            Job job = generated.take();
+            if (job.mesh == null && job.polygons == null) {
+                done.countDown();   //Generation failed
+                continue;
+            }
+            rendered.acquire();
+            Platform.runLater(() -> {
+                long begin = System.nanoTime();
+                try {
+                    job.argb = render(job, size, image);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+                job.mesh = null;
+                job.polygons = null;
+                renderNanos.add(System.nanoTime() - begin);
+                encoders.execute(() -> {
+                    long encodeStart = System.nanoTime();
+                    try {
+                        if (job.argb != null) {
+                            PngEncoder.write(job.argb, size, size,
+                                    out.resolve(String.format("%04d-%s.png", job.index, job.spec.shape)));
+                            written.incrementAndGet();
+                        }
+                    } catch (IOException | RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        encodeNanos.add(System.nanoTime() - encodeStart);
+                        rendered.release();
+                        done.countDown();
+                    }
+                });
+            });
+        }
+        done.await();
+        generators.shutdown();
+        encoders.shutdown();
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf(Locale.ROOT, "Rendered %d of %d images (%dx%d, %s) in %.3f s, %.1f images/sec%n",
+                written.get(), specs.size(), size, size, meshViews ? "mesh views" : "projected polygons",
+                seconds, written.get() / seconds);
+        System.out.printf(Locale.ROOT, "Busy time: generation %.0f ms on %d threads, rendering %.0f ms on the"
+                        + " JavaFX thread, encoding %.0f ms on %d threads%n", generateNanos.sum() / 1e6, threads,
+                renderNanos.sum() / 1e6, encodeNanos.sum() / 1e6, threads);
+        System.out.println("Images written to " + out.toAbsolutePath());
+        if (failure.get() != null) {
+            throw new IOException("Some images could not be rendered", failure.get());
+        }
+    }
+
+    /*
+     * Builds the scene of one shape and renders it, returns its pixels.
+     * Must be called on the JavaFX thread.
+     */
+    private static int[] render(Job job, int size, WritableImage image) {
+        Group content = new Group();
+        if (job.mesh != null) {
+            MeshView view = MeshAdapter.toMeshView(job.mesh, MeshInstances.material());
+            double[] m = orientation(job.spec.shape);
+            view.getTransforms().add(new Affine(m[0], m[1], m[2], SHAPE_SIZE / 2, m[3], m[4], m[5],
+                    SHAPE_SIZE / 2, m[6], m[7], m[8], 0));
+            content.getChildren().add(view);
+        } else {
+            Node[] polygons = new Node[job.shades.length];
+            for (int t = 0; t < polygons.length; t++) {
+                int i = t * 6;
+                float[] p = job.polygons;
+                Polygon polygon = new Polygon(p[i], p[i + 1], p[i + 2], p[i + 3], p[i + 4], p[i + 5]);
+                Color color = Color.gray(job.shades[t]);
+                polygon.setFill(color);
+                polygon.setStroke(color);   //Covers the seams between the triangles
+                polygon.setStrokeWidth(0.5);
+                polygons[t] = polygon;
+            }
+            content.getChildren().addAll(polygons);
+        }
+        Scene scene = new Scene(new Group(content), size, size, job.mesh != null);
+        scene.setFill(Color.WHITE);
+        scene.setCamera(new PerspectiveCamera(false));
+        ShapeWindows.fitToWindow(content, scene, SHAPE_SIZE);
+        scene.snapshot(image);
+        int[] argb = new int[size * size];
+        image.getPixelReader().getPixels(0, 0, size, size, PixelFormat.getIntArgbInstance(), argb, 0, size);
+        return argb;
+    }
+
+    /*
+     * Projects the triangles of the mesh for a renderer without 3D.
+     * Faces turned away from the camera are dropped, except for the flat shapes which have a single side,
+     * the others are sorted back to front and shaded by the angle to the camera, like the default light.
+     */
+    private static void project(Job job, MeshData mesh) {
+        double[] m = orientation(job.spec.shape);
+        boolean cull = !FLAT.contains(job.spec.shape);
+        float[] points = mesh.getPoints();
+        int vertices = points.length / 3;
+        double[] x = new double[vertices];
+        double[] y = new double[vertices];
+        double[] z = new double[vertices];
+        for (int v = 0; v < vertices; v++) {
+            double px = points[v * 3];
+            double py = points[v * 3 + 1];
+            double pz = points[v * 3 + 2];
+            x[v] = m[0] * px + m[1] * py + m[2] * pz + SHAPE_SIZE / 2;
+            y[v] = m[3] * px + m[4] * py + m[5] * pz + SHAPE_SIZE / 2;
+            z[v] = m[6] * px + m[7] * py + m[8] * pz;
+        }
+        int[] faces = mesh.getFaces();
+        int triangles = faces.length / 6;
+        long[] order = new long[triangles];     //Depth in the high bits, triangle in the low bits
+        float[] shade = new float[triangles];
+        int visible = 0;
+        for (int t = 0; t < triangles; t++) {
+            int a = faces[t * 6];
+            int b = faces[t * 6 + 2];
+            int c = faces[t * 6 + 4];
+            double ux = x[b] - x[a], uy = y[b] - y[a], uz = z[b] - z[a];
+            double vx = x[c] - x[a], vy = y[c] - y[a], vz = z[c] - z[a];
+            double nx = uy * vz - uz * vy;
+            double ny = uz * vx - ux * vz;
+            double nz = ux * vy - uy * vx;
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length == 0 || (cull && nz >= 0)) {
+                continue;   //Degenerate, or facing away, the camera looks down +Z
+            }
+            shade[t] = (float) (0.5 * (0.3 + 0.7 * Math.abs(nz) / length));    //Gray material, ambient and diffuse
+            //Furthest first, negated so the ascending sort puts the largest depth first
+            float depth = (float) -(z[a] + z[b] + z[c]);
+            int bits = Float.floatToIntBits(depth);
+            bits ^= (bits >> 31) & 0x7FFFFFFF;  //Orders like the float when compared as an int
+            order[visible++] = ((long) bits << 32) | t;
+        }
+        Arrays.sort(order, 0, visible);
+        job.polygons = new float[visible * 6];
+        job.shades = new float[visible];
+        for (int i = 0; i < visible; i++) {
+            int t = (int) order[i];
+            job.shades[i] = shade[t];
+            for (int corner = 0; corner < 3; corner++) {
+                int v = faces[t * 6 + corner * 2];
+                job.polygons[i * 6 + corner * 2] = (float) x[v];
+                job.polygons[i * 6 + corner * 2 + 1] = (float) y[v];
+            }
+        }
+    }
+
+    /*
+     * Returns the row major 3x3 rotation of the shape, the same for both renderers.
+     * The cone is turned to stand on its base like in the viewer, the 3D shapes are tilted.
+     */
+    private static double[] orientation(String shape) {
+        if (FLAT.contains(shape)) {
+            return new double[]{1, 0, 0, 0, 1, 0, 0, 0, 1};
+        }
+        double[] m = rotateY(TILT_Y);
+        m = multiply(rotateX(TILT_X), m);
+        if (shape.equals("cone")) {
+            m = multiply(m, rotateX(90));   //Applied first
+        }
+        return m;
+    }
+
+    private static double[] rotateX(double degrees) {
+        double c = Math.cos(Math.toRadians(degrees));
+        double s = Math.sin(Math.toRadians(degrees));
+        return new double[]{1, 0, 0, 0, c, -s, 0, s, c};
+    }
+
+    private static double[] rotateY(double degrees) {
+        double c = Math.cos(Math.toRadians(degrees));
+        double s = Math.sin(Math.toRadians(degrees));
+        return new double[]{c, 0, s, 0, 1, 0, -s, 0, c};
+    }
+
+    private static double[] multiply(double[] a, double[] b) {
+        double[] m = new double[9];
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 3; column++) {
+                m[row * 3 + column] = a[row * 3] * b[column] + a[row * 3 + 1] * b[3 + column]
+                        + a[row * 3 + 2] * b[6 + column];
+            }
+        }
+        return m;
+    }
+
+    /*
+     * Returns a factory of named daemon threads, so a failure cannot keep the JVM alive
+     */
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}